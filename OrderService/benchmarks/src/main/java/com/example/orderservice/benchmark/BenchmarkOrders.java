@@ -0,0 +1,60 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Detached orders shaped like the ones the service loads, used as benchmark inputs.
+ */
+public final class BenchmarkOrders {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private BenchmarkOrders() {
+    }
+
+    /**
+     * An order with the given id and number of items, all fields populated
+     */
+    public static Order order(long id, int itemCount) {
+        Order order = new Order("ORD-" + (7_000_000_000_000L + id), (int) (id % 1000) + 1,
+                "1 rue de la Paix, 75002 Paris", "1 rue de la Paix, 75002 Paris",
+                BigDecimal.ZERO, "CREATED");
+        order.setId(id);
+        order.setCreatedAt(CREATED_AT.plusSeconds(id));
+        order.setUpdatedAt(CREATED_AT.plusSeconds(id));
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem("PROD-" + i, i % 5 + 1, new BigDecimal("19.99"));
+            item.setId(id * 100 + i);
+            item.setCreatedAt(order.getCreatedAt());
+            order.addOrderItem(item);
+            total = total.add(item.getTotalLine());
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    /**
+     * The list-view DTO of {@link #order(long, int)}: every scalar field, no items
+     */
+    public static OrderDTO summary(long id) {
+        Order order = order(id, 3);
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setUserId(order.getUserId());
+        dto.setShippingAddress(order.getShippingAddress());
+        dto.setBillingAddress(order.getBillingAddress());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setStatus(order.getStatus());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setUpdatedAt(order.getUpdatedAt());
+        return dto;
+    }
+}
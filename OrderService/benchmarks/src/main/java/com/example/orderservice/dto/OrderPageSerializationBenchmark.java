@@ -0,0 +1,63 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.benchmark.BenchmarkOrders;
+import com.example.orderservice.util.PaginatedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a GET /api/orders page, envelope included, with the ObjectMapper
+ * settings Spring Boot applies. Writes into a reused buffer like the HTTP message converter
+ * writes into the response stream, so only the serializer's own allocation is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    int rows;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+    private PaginatedResponse<OrderDTO> page;
+
+    @Setup
+    public void setUp() {
+        List<OrderDTO> orders = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            orders.add(BenchmarkOrders.summary(id));
+        }
+        page = new PaginatedResponse<>(orders, 1, rows, 10_000);
+    }
+
+    @Benchmark
+    public int serializePage() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, page);
+        return out.size();
+    }
+}
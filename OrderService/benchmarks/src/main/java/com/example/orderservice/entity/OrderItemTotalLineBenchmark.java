@@ -0,0 +1,49 @@
+package com.example.orderservice.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputation of an order item's total line, directly and through the setters that trigger it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderItemTotalLineBenchmark {
+
+    private final OrderItem item = new OrderItem("PROD-1", 3, new BigDecimal("19.99"));
+    private final BigDecimal unitPrice = new BigDecimal("24.50");
+    private int quantity;
+
+    @Benchmark
+    public BigDecimal calculateTotalLine() {
+        item.calculateTotalLine();
+        return item.getTotalLine();
+    }
+
+    @Benchmark
+    public BigDecimal setQuantity() {
+        // Vary the quantity so the multiplication can't be folded away
+        item.setQuantity((quantity++ & 7) + 1);
+        return item.getTotalLine();
+    }
+
+    @Benchmark
+    public BigDecimal setUnitPrice() {
+        item.setUnitPrice(unitPrice);
+        return item.getTotalLine();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.benchmark.BenchmarkOrders;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.entity.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion of a single order, as done for detail, create and update responses
+ * (with items) and for cursor pages (without items).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderConversionBenchmark {
+
+    @Param({"1", "10", "50"})
+    int itemCount;
+
+    // The converters only touch their argument, so no collaborator needs to be wired
+    private final OrderService orderService = new OrderService();
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkOrders.order(42, itemCount);
+    }
+
+    @Benchmark
+    public OrderDTO convertToDTO() {
+        return orderService.convertToDTO(order);
+    }
+
+    @Benchmark
+    public OrderDTO convertToDTOWithoutItems() {
+        return orderService.convertToDTOWithoutItems(order);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.orderservice.util;
+
+import com.example.orderservice.dto.OrderDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the response envelopes every endpoint returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEnvelopeBenchmark {
+
+    private OrderDTO order;
+    private List<OrderDTO> page;
+    private final Map<String, Object> meta = Map.of("found", 20, "notFound", 0);
+
+    @Setup
+    public void setUp() {
+        order = new OrderDTO();
+        order.setId(42L);
+        page = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            OrderDTO dto = new OrderDTO();
+            dto.setId(id);
+            page.add(dto);
+        }
+    }
+
+    @Benchmark
+    public ApiResponse<OrderDTO> apiResponse() {
+        return new ApiResponse<>(order);
+    }
+
+    @Benchmark
+    public ApiResponse<List<OrderDTO>> apiResponseWithMeta() {
+        return new ApiResponse<>(page, meta);
+    }
+
+    @Benchmark
+    public PaginatedResponse<OrderDTO> paginatedResponse() {
+        return new PaginatedResponse<>(page, 1, 20, 1234);
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.orderservice.client;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -22,9 +25,12 @@ public class CartServiceClient {
 
     private final RestTemplate restTemplate;
 
+    private final DownstreamGuard cartServiceGuard;
+
     @Autowired
-    public CartServiceClient(RestTemplate restTemplate) {
+    public CartServiceClient(RestTemplate restTemplate, @Qualifier("cartServiceGuard") DownstreamGuard cartServiceGuard) {
         this.restTemplate = restTemplate;
+        this.cartServiceGuard = cartServiceGuard;
     }
 
     /**
@@ -40,13 +46,17 @@ public class CartServiceClient {
 
         try {
             String url = cartServiceUrl + "/paniers/user/" + userId;
-            Object cartData = restTemplate.getForObject(url, Object.class);
+            Object cartData = cartServiceGuard.execute("getCartByUser", () -> restTemplate.getForObject(url, Object.class));
             logger.debug("Retrieved cart for user {} from CartService", userId);
             return cartData;
         } catch (HttpClientErrorException.NotFound e) {
             // Cart not found (404)
             logger.debug("No cart found for user {} in CartService", userId);
             return null;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // CartService is unhealthy or saturated: fail fast without a network call
+            logger.debug("Call to CartService rejected for user {}: {}", userId, e.getMessage());
+            return null;
         } catch (Exception e) {
             logger.error("Error communicating with CartService: {}", e.getMessage());
             return null;
@@ -66,13 +76,16 @@ public class CartServiceClient {
 
         try {
             String url = cartServiceUrl + "/paniers/" + cartId;
-            Object cartData = restTemplate.getForObject(url, Object.class);
+            Object cartData = cartServiceGuard.execute("getCart", () -> restTemplate.getForObject(url, Object.class));
             logger.debug("Retrieved cart {} from CartService", cartId);
             return cartData;
         } catch (HttpClientErrorException.NotFound e) {
             // Cart not found (404)
             logger.debug("Cart {} not found in CartService", cartId);
             return null;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.debug("Call to CartService rejected for cart {}: {}", cartId, e.getMessage());
+            return null;
         } catch (Exception e) {
             logger.error("Error fetching cart from CartService: {}", e.getMessage());
             return null;
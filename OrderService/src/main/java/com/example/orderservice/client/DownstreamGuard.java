@@ -0,0 +1,135 @@
+package com.example.orderservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead protecting calls to one downstream service.
+ * When the downstream is unhealthy or saturated, calls are rejected immediately
+ * with CallNotPermittedException or BulkheadFullException instead of waiting on the network.
+ * Once bound to a registry, every call is timed in downstream.calls (tagged service, operation
+ * and outcome) and every failure other than a 4xx is counted in downstream.errors.
+ */
+public class DownstreamGuard implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownstreamGuard.class);
+
+    public static final String CALLS_METRIC = "downstream.calls";
+    public static final String ERRORS_METRIC = "downstream.errors";
+
+    /**
+     * How a downstream call ended
+     */
+    enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR, REJECTED, ERROR;
+
+        static Outcome of(RuntimeException e) {
+            if (e instanceof HttpClientErrorException) {
+                return CLIENT_ERROR;
+            }
+            if (e instanceof HttpServerErrorException) {
+                return SERVER_ERROR;
+            }
+            if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException) {
+                return REJECTED;
+            }
+            return ERROR;
+        }
+    }
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public DownstreamGuard(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                logger.warn("Circuit breaker {} changed state: {}", event.getCircuitBreakerName(), event.getStateTransition()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Execute a downstream call through the circuit breaker and the bulkhead.
+     *
+     * @param operation Name of the call in metrics, e.g. "getUser"
+     * @param call      The downstream call
+     * @return The result of the call
+     */
+    public <T> T execute(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, call));
+            record(operation, Outcome.SUCCESS, start, null);
+            return result;
+        } catch (RuntimeException e) {
+            record(operation, Outcome.of(e), start, e);
+            throw e;
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    private void record(String operation, Outcome outcome, long start, RuntimeException error) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        timer(meterRegistry, operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (error != null && outcome != Outcome.CLIENT_ERROR) {
+            Counter.builder(ERRORS_METRIC)
+                    .description("Failed calls to a downstream service, by exception type")
+                    .tag("service", circuitBreaker.getName())
+                    .tag("operation", operation)
+                    .tag("exception", error.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    /**
+     * Timers are looked up once per operation and outcome; registering the same timer twice
+     * returns the existing one, so a race between two first calls is harmless.
+     */
+    private Timer timer(MeterRegistry meterRegistry, String operation, Outcome outcome) {
+        Timer[] byOutcome = timers.computeIfAbsent(operation, key -> new Timer[Outcome.values().length]);
+        Timer timer = byOutcome[outcome.ordinal()];
+        if (timer == null) {
+            timer = Timer.builder(CALLS_METRIC)
+                    .description("Calls to a downstream service, including rejected ones")
+                    .tag("service", circuitBreaker.getName())
+                    .tag("operation", operation)
+                    .tag("outcome", outcome.name())
+                    .register(meterRegistry);
+            byOutcome[outcome.ordinal()] = timer;
+        }
+        return timer;
+    }
+}
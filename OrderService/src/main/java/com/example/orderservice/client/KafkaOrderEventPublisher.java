@@ -0,0 +1,57 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.entity.OrderOutboxEvent;
+import com.example.orderservice.service.OrderEventPublisher;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes order events to the platform's Kafka topics.
+ * Records are keyed by order id, so all events of an order land in the same partition of a topic.
+ * The event type and outbox id are sent as headers; consumers can use the id to drop redeliveries.
+ */
+@Component
+public class KafkaOrderEventPublisher implements OrderEventPublisher {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    @Value("${orders.events.topic.created:order.created}")
+    private String createdTopic;
+
+    @Value("${orders.events.topic.status-changed:order.updated}")
+    private String statusChangedTopic;
+
+    @Value("${orders.events.topic.deleted:order.cancelled}")
+    private String deletedTopic;
+
+    public KafkaOrderEventPublisher(KafkaTemplate<String, String> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(OrderOutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+                topicFor(event.getEventType()), String.valueOf(event.getOrderId()), event.getPayload());
+        record.headers().add("eventId", String.valueOf(event.getId()).getBytes(StandardCharsets.UTF_8));
+        record.headers().add("eventType", event.getEventType().name().getBytes(StandardCharsets.UTF_8));
+        try {
+            return kafkaTemplate.send(record).thenApply(result -> null);
+        } catch (RuntimeException e) {
+            // e.g. metadata unavailable within max.block.ms
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private String topicFor(OrderOutboxEvent.Type type) {
+        return switch (type) {
+            case ORDER_CREATED -> createdTopic;
+            case ORDER_STATUS_CHANGED -> statusChangedTopic;
+            case ORDER_DELETED -> deletedTopic;
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.orderservice.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Bounded in-process cache of UserService existence checks, keyed by userId.
+ * Confirmed users are kept for the positive TTL and confirmed 404s for the shorter negative TTL.
+ * Eviction is size-bounded (W-TinyLFU); hit, miss and eviction counters are published as metrics.
+ */
+@Component
+public class UserExistenceCache implements MeterBinder {
+
+    private final Cache<Integer, Boolean> cache;
+
+    public UserExistenceCache(@Value("${userservice.cache.max-size:100000}") long maxSize,
+                              @Value("${userservice.cache.positive-ttl-ms:600000}") long positiveTtlMs,
+                              @Value("${userservice.cache.negative-ttl-ms:30000}") long negativeTtlMs) {
+        long positiveTtlNanos = Duration.ofMillis(positiveTtlMs).toNanos();
+        long negativeTtlNanos = Duration.ofMillis(negativeTtlMs).toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Integer, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(Integer userId, Boolean exists, long currentTime) {
+                        return exists ? positiveTtlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer userId, Boolean exists, long currentTime, long currentDuration) {
+                        return exists ? positiveTtlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer userId, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the cached existence of a user.
+     *
+     * @param userId The ID of the user
+     * @return true or false if the result is cached, null on a miss
+     */
+    public Boolean getIfPresent(Integer userId) {
+        return cache.getIfPresent(userId);
+    }
+
+    /**
+     * Record a confirmed existence check result.
+     */
+    public void put(Integer userId, boolean exists) {
+        cache.put(userId, exists);
+    }
+
+    /**
+     * Purge a user, e.g. after it has been deleted in UserService.
+     */
+    public void invalidate(Integer userId) {
+        cache.invalidate(userId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache, "userExistence", Collections.emptyList()).bindTo(registry);
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.orderservice.client;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -22,13 +25,22 @@ public class UserServiceClient {
 
     private final RestTemplate restTemplate;
 
+    private final UserExistenceCache userExistenceCache;
+
+    private final DownstreamGuard userServiceGuard;
+
     @Autowired
-    public UserServiceClient(RestTemplate restTemplate) {
+    public UserServiceClient(RestTemplate restTemplate, UserExistenceCache userExistenceCache,
+                             @Qualifier("userServiceGuard") DownstreamGuard userServiceGuard) {
         this.restTemplate = restTemplate;
+        this.userExistenceCache = userExistenceCache;
+        this.userServiceGuard = userServiceGuard;
     }
 
     /**
      * Verify if a user exists in UserService.
+     * Confirmed results (found or 404) are served from the user existence cache
+     * until they expire, so repeat customers skip the network entirely.
      * 
      * @param userId The ID of the user to verify
      * @return true if user exists, false otherwise
@@ -38,15 +50,26 @@ public class UserServiceClient {
             return false;
         }
 
+        Boolean cached = userExistenceCache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
             String url = userServiceUrl + "/users/" + userId;
-            restTemplate.getForObject(url, Object.class);
+            userServiceGuard.execute("verifyUser", () -> restTemplate.getForObject(url, Object.class));
             logger.debug("User {} verified successfully in UserService", userId);
+            userExistenceCache.put(userId, true);
             return true;
         } catch (HttpClientErrorException.NotFound e) {
             // User not found (404)
             logger.debug("User {} not found in UserService", userId);
+            userExistenceCache.put(userId, false);
             return false;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // UserService is unhealthy or saturated: fail fast without a network call
+            logger.debug("Call to UserService rejected for user {}: {}", userId, e.getMessage());
+            return true;
         } catch (Exception e) {
             // Log error but don't fail the request
             // In production, you might want to handle this differently
@@ -57,6 +80,17 @@ public class UserServiceClient {
         }
     }
 
+    /**
+     * Purge the cached existence of a user, e.g. after it has been deleted in UserService.
+     * 
+     * @param userId The ID of the user
+     */
+    public void invalidateUser(Integer userId) {
+        if (userId != null) {
+            userExistenceCache.invalidate(userId);
+        }
+    }
+
     /**
      * Get user information from UserService.
      * 
@@ -70,9 +104,13 @@ public class UserServiceClient {
 
         try {
             String url = userServiceUrl + "/users/" + userId;
-            Object userData = restTemplate.getForObject(url, Object.class);
+            Object userData = userServiceGuard.execute("getUser", () -> restTemplate.getForObject(url, Object.class));
             logger.debug("Retrieved user info for user {} from UserService", userId);
+            userExistenceCache.put(userId, true);
             return userData;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.debug("Call to UserService rejected for user {}: {}", userId, e.getMessage());
+            return null;
         } catch (Exception e) {
             logger.error("Error fetching user from UserService: {}", e.getMessage());
             return null;
@@ -0,0 +1,87 @@
+package com.example.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for the change feed executors.
+ * Change feed connections hold no thread while they wait: when the feed advances, the reads answering waiting
+ * long-polls are queued on one executor, and the writes to SSE subscribers on another, at most one task per
+ * subscriber. A write can block on a slow client's socket, so only other SSE writes ever wait behind it.
+ */
+@Configuration
+public class ChangeFeedExecutorConfig {
+
+    @Value("${orders.changes.pool-size:8}")
+    private int poolSize;
+
+    @Value("${orders.changes.sse-pool-size:8}")
+    private int ssePoolSize;
+
+    @Value("${orders.changes.max-connections:10000}")
+    private int maxConnections;
+
+    /**
+     * Create the executor answering long-polls. The queue holds one task per connection at most.
+     *
+     * @return ThreadPoolTaskExecutor instance
+     */
+    @Bean(name = "changeFeedExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor changeFeedExecutor() {
+        return executor(poolSize, "change-feed-");
+    }
+
+    /**
+     * Create the executor writing to SSE subscribers. The queue holds one task per connection at most.
+     *
+     * @return ThreadPoolTaskExecutor instance
+     */
+    @Bean(name = "changeFeedSseExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor changeFeedSseExecutor() {
+        return executor(ssePoolSize, "change-feed-sse-");
+    }
+
+    /**
+     * Virtual-thread variant (spring.threads.virtual.enabled) of the long-poll executor
+     *
+     * @return SimpleAsyncTaskExecutor instance
+     */
+    @Bean(name = "changeFeedExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualChangeFeedExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("change-feed-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Virtual-thread variant of the SSE executor: a subscriber whose socket is full only parks a virtual thread
+     * instead of holding one of the pool's threads.
+     *
+     * @return SimpleAsyncTaskExecutor instance
+     */
+    @Bean(name = "changeFeedSseExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualChangeFeedSseExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("change-feed-sse-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    private ThreadPoolTaskExecutor executor(int threads, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxConnections);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for the enrichment executor.
+ * Downstream lookups made by the enriched order endpoint run on this dedicated executor
+ * so they can be issued concurrently without borrowing Tomcat request threads.
+ */
+@Configuration
+public class EnrichmentExecutorConfig {
+
+    @Value("${enrichment.pool-size:16}")
+    private int poolSize;
+
+    @Value("${enrichment.queue-capacity:200}")
+    private int queueCapacity;
+
+    /**
+     * Create the executor used to fan out calls to UserService and CartService.
+     *
+     * @return ThreadPoolTaskExecutor instance
+     */
+    @Bean(name = "enrichmentExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor enrichmentExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("enrichment-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Virtual-thread variant (spring.threads.virtual.enabled): one virtual thread per lookup.
+     * Concurrency towards each downstream is still capped by its bulkhead and connection pool.
+     *
+     * @return SimpleAsyncTaskExecutor instance
+     */
+    @Bean(name = "enrichmentExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualEnrichmentExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("enrichment-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.orderservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Exposes the inter-service connection pool as gauges.
+ * Reports leased, pending and available connections for the whole pool and for each downstream.
+ */
+@Component
+public class HttpClientPoolMetrics implements MeterBinder {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    @Value("${userservice.url:http://user-api-dev:3000}")
+    private String userServiceUrl;
+
+    @Value("${cartservice.url:http://cart-api-dev:5020}")
+    private String cartServiceUrl;
+
+    public HttpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "all", connectionManager::getTotalStats);
+
+        HttpRoute userRoute = RestClientConfig.routeFor(userServiceUrl);
+        register(registry, "userservice", () -> connectionManager.getStats(userRoute));
+
+        HttpRoute cartRoute = RestClientConfig.routeFor(cartServiceUrl);
+        register(registry, "cartservice", () -> connectionManager.getStats(cartRoute));
+    }
+
+    private void register(MeterRegistry registry, String target, Supplier<PoolStats> stats) {
+        gauge(registry, "http.client.pool.leased", target, stats, PoolStats::getLeased);
+        gauge(registry, "http.client.pool.pending", target, stats, PoolStats::getPending);
+        gauge(registry, "http.client.pool.available", target, stats, PoolStats::getAvailable);
+        gauge(registry, "http.client.pool.max", target, stats, PoolStats::getMax);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String target,
+                       Supplier<PoolStats> stats, Function<PoolStats, Integer> value) {
+        Gauge.builder(name, stats, s -> value.apply(s.get()))
+                .tag("target", target)
+                .register(registry);
+    }
+}
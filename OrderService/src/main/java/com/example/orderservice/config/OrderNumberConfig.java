@@ -0,0 +1,58 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.service.OrderNumberGenerator;
+import com.example.orderservice.service.SnowflakeOrderNumberGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Configuration class for the order number generator.
+ * The Snowflake generator is the default; set orders.number.generator to another value
+ * and declare an OrderNumberGenerator bean to plug in a different strategy.
+ */
+@Configuration
+public class OrderNumberConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberConfig.class);
+
+    /**
+     * Create the Snowflake order number generator.
+     * Every node must use a distinct orders.number.node-id (0-1023), so it must be configured: two hosts may hash
+     * to the same ID and would then generate the same numbers. Only the dev and test profiles, which run a single
+     * node, fall back to an ID derived from the host name.
+     *
+     * @param nodeId the configured node ID, or -1 when none is configured
+     * @return OrderNumberGenerator instance
+     */
+    @Bean
+    @ConditionalOnProperty(name = "orders.number.generator", havingValue = "snowflake", matchIfMissing = true)
+    public OrderNumberGenerator orderNumberGenerator(@Value("${orders.number.node-id:-1}") long nodeId,
+                                                    Environment environment) {
+        if (nodeId < 0) {
+            if (!environment.matchesProfiles("dev | test")) {
+                throw new IllegalStateException("orders.number.node-id (ORDER_NODE_ID) must be set to an ID "
+                        + "(0-" + SnowflakeOrderNumberGenerator.MAX_NODE_ID + ") that no other instance uses");
+            }
+            nodeId = deriveNodeId();
+            logger.warn("orders.number.node-id is not set, derived node ID {} from host name", nodeId);
+        }
+        return new SnowflakeOrderNumberGenerator(nodeId);
+    }
+
+    private long deriveNodeId() {
+        try {
+            String hostName = InetAddress.getLocalHost().getHostName();
+            return Math.floorMod(hostName.hashCode(), SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1);
+        } catch (UnknownHostException e) {
+            return 0;
+        }
+    }
+}
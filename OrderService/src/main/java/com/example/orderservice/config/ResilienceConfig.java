@@ -0,0 +1,129 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.client.DownstreamGuard;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the circuit breakers and bulkheads around inter-service calls.
+ * Each downstream (UserService, CartService) gets its own breaker and bulkhead.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    public static final String USER_SERVICE = "userservice";
+    public static final String CART_SERVICE = "cartservice";
+
+    @Value("${resilience.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${resilience.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${resilience.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${resilience.circuit-breaker.slow-call-duration-ms:1000}")
+    private long slowCallDurationMs;
+
+    @Value("${resilience.circuit-breaker.slow-call-rate-threshold:50}")
+    private float slowCallRateThreshold;
+
+    @Value("${resilience.circuit-breaker.wait-in-open-ms:5000}")
+    private long waitInOpenMs;
+
+    @Value("${resilience.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${userservice.bulkhead.max-concurrent-calls:20}")
+    private int userServiceMaxConcurrentCalls;
+
+    @Value("${cartservice.bulkhead.max-concurrent-calls:20}")
+    private int cartServiceMaxConcurrentCalls;
+
+    /**
+     * Circuit breaker registry with a count-based sliding window over failures and slow calls.
+     * 4xx responses are valid answers from a healthy downstream and are not recorded as failures.
+     */
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .waitDurationInOpenState(Duration.ofMillis(waitInOpenMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .ignoreExceptions(HttpClientErrorException.class, BulkheadFullException.class)
+                .build();
+        return CircuitBreakerRegistry.of(config);
+    }
+
+    /**
+     * Bulkhead registry. Calls beyond the concurrency cap are rejected without waiting.
+     */
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    @Bean
+    public DownstreamGuard userServiceGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        return new DownstreamGuard(
+                circuitBreakerRegistry.circuitBreaker(USER_SERVICE),
+                bulkheadRegistry.bulkhead(USER_SERVICE, bulkheadConfig(userServiceMaxConcurrentCalls)));
+    }
+
+    @Bean
+    public DownstreamGuard cartServiceGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        return new DownstreamGuard(
+                circuitBreakerRegistry.circuitBreaker(CART_SERVICE),
+                bulkheadRegistry.bulkhead(CART_SERVICE, bulkheadConfig(cartServiceMaxConcurrentCalls)));
+    }
+
+    /**
+     * Publish breaker state, call outcomes, not-permitted calls and bulkhead rejections as metrics.
+     */
+    @Bean
+    public MeterBinder resilienceMetrics(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        return registry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(registry);
+            bulkheadRegistry.getAllBulkheads().forEach(bulkhead -> countRejections(registry, bulkhead));
+            bulkheadRegistry.getEventPublisher().onEntryAdded(event -> countRejections(registry, event.getAddedEntry()));
+        };
+    }
+
+    private void countRejections(MeterRegistry registry, Bulkhead bulkhead) {
+        Counter rejected = Counter.builder("resilience4j.bulkhead.rejected.calls")
+                .tag("name", bulkhead.getName())
+                .register(registry);
+        bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+    }
+
+    private BulkheadConfig bulkheadConfig(int maxConcurrentCalls) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+    }
+}
@@ -1,25 +1,130 @@
 package com.example.orderservice.config;
 
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+
 /**
  * Configuration class for REST client beans.
- * Provides RestTemplate bean for inter-service communication.
+ * Provides RestTemplate bean for inter-service communication, backed by a pooled
+ * Apache HttpClient so connections to UserService and CartService are kept alive and reused.
  */
 @Configuration
 public class RestClientConfig {
 
+    @Value("${userservice.url:http://user-api-dev:3000}")
+    private String userServiceUrl;
+
+    @Value("${cartservice.url:http://cart-api-dev:5020}")
+    private String cartServiceUrl;
+
+    @Value("${interservice.http.max-total:100}")
+    private int maxTotal;
+
+    @Value("${interservice.http.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${userservice.max-connections:${interservice.http.max-per-route:20}}")
+    private int userServiceMaxConnections;
+
+    @Value("${cartservice.max-connections:${interservice.http.max-per-route:20}}")
+    private int cartServiceMaxConnections;
+
+    @Value("${interservice.http.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+
+    @Value("${interservice.http.read-timeout-ms:${enrichment.timeout-ms:2000}}")
+    private long readTimeoutMs;
+
+    @Value("${interservice.http.pool-acquire-timeout-ms:500}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${interservice.http.idle-evict-ms:30000}")
+    private long idleEvictMs;
+
+    @Value("${interservice.http.connection-ttl-ms:300000}")
+    private long connectionTtlMs;
+
+    /**
+     * Create the pooled connection manager shared by all inter-service clients.
+     * Connections are capped globally and per target host.
+     *
+     * @return PoolingHttpClientConnectionManager instance
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager interServiceConnectionManager() {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setTimeToLive(TimeValue.ofMilliseconds(connectionTtlMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+        connectionManager.setMaxPerRoute(routeFor(userServiceUrl), userServiceMaxConnections);
+        connectionManager.setMaxPerRoute(routeFor(cartServiceUrl), cartServiceMaxConnections);
+        return connectionManager;
+    }
+
+    /**
+     * Create the HTTP client used by RestTemplate.
+     * Idle and expired connections are evicted by a background thread.
+     *
+     * @param interServiceConnectionManager the pooled connection manager
+     * @return CloseableHttpClient instance
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient interServiceHttpClient(PoolingHttpClientConnectionManager interServiceConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(interServiceConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .evictExpiredConnections()
+                .build();
+    }
+
     /**
      * Create RestTemplate bean for HTTP client operations.
      * Used by service clients (UserServiceClient, CartServiceClient) to communicate
      * with other microservices.
-     * 
+     *
+     * @param interServiceHttpClient the pooled HTTP client
      * @return RestTemplate instance
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient interServiceHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(interServiceHttpClient));
+    }
+
+    /**
+     * Build the pool route for a downstream base URL, resolving the default port of the scheme.
+     */
+    static HttpRoute routeFor(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port));
     }
 }
@@ -0,0 +1,60 @@
+package com.example.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables @Scheduled background jobs and the schedulers they run on.
+ * Short periodic jobs share the default pool; the outbox relay, which can wait on the broker and drain a large
+ * backlog in one poll, has its own thread so it never delays them, and so do the long maintenance jobs
+ * (archival, retention, consistency checks), which may run for minutes.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Value("${scheduling.pool-size:4}")
+    private int poolSize;
+
+    /**
+     * Default scheduler of @Scheduled methods that do not name one
+     *
+     * @return ThreadPoolTaskScheduler instance
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+
+    /**
+     * Thread of the long maintenance jobs, which then run one at a time
+     *
+     * @return ThreadPoolTaskScheduler instance
+     */
+    @Bean(name = "maintenanceScheduler")
+    public ThreadPoolTaskScheduler maintenanceScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("maintenance-");
+        return scheduler;
+    }
+
+    /**
+     * Dedicated thread of the order outbox relay
+     *
+     * @return ThreadPoolTaskScheduler instance
+     */
+    @Bean(name = "outboxRelayScheduler")
+    public ThreadPoolTaskScheduler outboxRelayScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-relay-");
+        return scheduler;
+    }
+}
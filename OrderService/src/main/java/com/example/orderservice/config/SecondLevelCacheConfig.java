@@ -0,0 +1,156 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderItem;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.configuration.FactoryBuilder;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Configuration class for the Hibernate second-level cache, backed by Caffeine's JCache provider.
+ * Order, OrderItem and the Order.orderItems collection each get a region bounded by entry count
+ * and estimated memory, with its own TTL. Region statistics (hits, misses, evictions) are published as metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Value("${orders.cache.order.max-entries:10000}")
+    private long orderMaxEntries;
+
+    @Value("${orders.cache.order.max-memory-mb:16}")
+    private long orderMaxMemoryMb;
+
+    @Value("${orders.cache.order.ttl-seconds:600}")
+    private long orderTtlSeconds;
+
+    @Value("${orders.cache.order-item.max-entries:50000}")
+    private long orderItemMaxEntries;
+
+    @Value("${orders.cache.order-item.max-memory-mb:32}")
+    private long orderItemMaxMemoryMb;
+
+    @Value("${orders.cache.order-item.ttl-seconds:600}")
+    private long orderItemTtlSeconds;
+
+    @Value("${orders.cache.order-items.max-entries:10000}")
+    private long orderItemsMaxEntries;
+
+    @Value("${orders.cache.order-items.max-memory-mb:8}")
+    private long orderItemsMaxMemoryMb;
+
+    @Value("${orders.cache.order-items.ttl-seconds:600}")
+    private long orderItemsTtlSeconds;
+
+    /**
+     * JCache manager holding the second-level cache regions, handed to Hibernate below
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        createRegion(cacheManager, Order.CACHE_REGION, orderMaxEntries, orderMaxMemoryMb, orderTtlSeconds);
+        createRegion(cacheManager, OrderItem.CACHE_REGION, orderItemMaxEntries, orderItemMaxMemoryMb, orderItemTtlSeconds);
+        createRegion(cacheManager, Order.ITEMS_CACHE_REGION, orderItemsMaxEntries, orderItemsMaxMemoryMb, orderItemsTtlSeconds);
+        return cacheManager;
+    }
+
+    /**
+     * Make Hibernate use the regions above instead of building its own cache manager
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    /**
+     * Publish hit, miss and eviction statistics of each region (tagged cache=&lt;region&gt;)
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String region : List.of(Order.CACHE_REGION, OrderItem.CACHE_REGION, Order.ITEMS_CACHE_REGION)) {
+                bindRegion(registry, secondLevelCacheManager, region);
+            }
+        };
+    }
+
+    private void bindRegion(MeterRegistry registry, CacheManager cacheManager, String region) {
+        com.github.benmanes.caffeine.cache.Cache<?, ?> cache = cacheManager.getCache(region)
+                .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        CaffeineCacheMetrics.monitor(registry, cache, region);
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, long maxEntries, long maxMemoryMb, long ttlSeconds) {
+        long maxWeight = maxMemoryMb * 1024 * 1024;
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setNativeStatisticsEnabled(true)
+                .setMaximumWeight(OptionalLong.of(maxWeight))
+                .setWeigherFactory(Optional.of(FactoryBuilder.factoryOf(new EntryWeigher(maxWeight / maxEntries))))
+                .setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        cacheManager.createCache(region, configuration);
+    }
+
+    /**
+     * Weighs a cache entry by a cheap estimate of its heap footprint, computed from the disassembled state
+     * Hibernate caches (read-write item, entity or collection entry, then its column values) without copying it.
+     * Every entry weighs at least minWeight, so a region holding maxWeight never has more than
+     * maxWeight / minWeight entries: one weight bound enforces both the memory and the entry limit.
+     */
+    static class EntryWeigher implements Weigher<Object, Object>, Serializable {
+
+        private static final long KEY_WEIGHT = 64;
+        private static final long OBJECT_WEIGHT = 16;
+        private static final long VALUE_WEIGHT = 32;
+
+        private final long minWeight;
+
+        EntryWeigher(long minWeight) {
+            this.minWeight = Math.max(1, minWeight);
+        }
+
+        @Override
+        public int weigh(Object key, Object value) {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, KEY_WEIGHT + estimate(value)));
+        }
+
+        static long estimate(Object value) {
+            return switch (value) {
+                case null -> 0;
+                case AbstractReadWriteAccess.Lockable item -> OBJECT_WEIGHT + estimate(item.getValue());
+                case CacheEntry entry -> OBJECT_WEIGHT + estimate(entry.getDisassembledState());
+                case CollectionCacheEntry entry -> OBJECT_WEIGHT + estimate(entry.getState());
+                case Object[] array -> {
+                    long size = OBJECT_WEIGHT + 8L * array.length;
+                    for (Object element : array) {
+                        size += estimate(element);
+                    }
+                    yield size;
+                }
+                case String string -> 40 + string.length();
+                case Number number -> OBJECT_WEIGHT;
+                case Boolean flag -> 0;
+                case Enum<?> constant -> 0;
+                default -> VALUE_WEIGHT;
+            };
+        }
+    }
+}
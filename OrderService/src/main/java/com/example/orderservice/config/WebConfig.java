@@ -0,0 +1,20 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.util.OrderExportWriter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request parameter conversions.
+ * Export formats are accepted in any case (format=csv, format=CSV).
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, OrderExportWriter.Format.class, name -> OrderExportWriter.Format.parse(name)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown export format: " + name)));
+    }
+}
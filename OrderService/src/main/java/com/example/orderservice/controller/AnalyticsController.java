@@ -0,0 +1,162 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.CounterCheckDTO;
+import com.example.orderservice.dto.OrderRollupDTO;
+import com.example.orderservice.dto.RollupCheckDTO;
+import com.example.orderservice.entity.OrderRollup;
+import com.example.orderservice.service.OrderRollupService;
+import com.example.orderservice.service.UserOrderCounterService;
+import com.example.orderservice.util.ApiError;
+import com.example.orderservice.util.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST Controller for order analytics.
+ * Serves daily revenue and volume rollups, and the backfill and consistency check of the rollups
+ * and of the per-user order counters.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private UserOrderCounterService userOrderCounterService;
+
+    @Value("${orders.rollups.max-days:366}")
+    private int maxDays;
+
+    /**
+     * Get daily order count, revenue and item units
+     * GET /api/analytics/orders/daily?dimension=all|status|user&value=PAID&from=2024-01-01&to=2024-01-31
+     * (from and to are inclusive; defaults to the last 30 days. Without a value, every status or user is returned.)
+     */
+    @GetMapping("/orders/daily")
+    public ResponseEntity<?> getDailyRollups(
+            @RequestParam(defaultValue = "all") String dimension,
+            @RequestParam(required = false) String value,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        Optional<OrderRollup.Dimension> rollupDimension = Arrays.stream(OrderRollup.Dimension.values())
+                .filter(d -> d.name().equals(dimension.toUpperCase(Locale.ROOT)))
+                .findFirst();
+        if (rollupDimension.isEmpty()) {
+            Map<String, Object> details = new HashMap<>();
+            details.put("dimension", dimension);
+            ApiError error = new ApiError("VALIDATION_ERROR", "Dimension must be all, status or user", details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        ResponseEntity<ApiError> invalidRange = validateRange(start, end);
+        if (invalidRange != null) {
+            return invalidRange;
+        }
+
+        List<OrderRollupDTO> rollups = orderRollupService.getDailyRollups(rollupDimension.get(), value, start, end);
+        ApiResponse<List<OrderRollupDTO>> response = new ApiResponse<>(rollups);
+        response.addMeta("from", start.toString());
+        response.addMeta("to", end.toString());
+        response.addMeta("dimension", rollupDimension.get().name());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Rebuild all rollups from orders and order items (backfill)
+     * POST /api/analytics/orders/rebuild
+     */
+    @PostMapping("/orders/rebuild")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildRollups() {
+        int rows = orderRollupService.rebuild();
+        return ResponseEntity.ok(new ApiResponse<>(Map.of("rows", rows)));
+    }
+
+    /**
+     * Compare the rollups of a date range with a full recompute
+     * GET /api/analytics/orders/consistency?from=2024-01-01&to=2024-01-31 (defaults to today)
+     */
+    @GetMapping("/orders/consistency")
+    public ResponseEntity<?> checkRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end;
+        ResponseEntity<ApiError> invalidRange = validateRange(start, end);
+        if (invalidRange != null) {
+            return invalidRange;
+        }
+
+        RollupCheckDTO result = orderRollupService.check(start, end);
+        ApiResponse<RollupCheckDTO> response = new ApiResponse<>(result);
+        response.addMeta("consistent", result.isConsistent());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Rebuild all per-user order counters from the live and archived orders (backfill)
+     * POST /api/analytics/user-counters/rebuild
+     */
+    @PostMapping("/user-counters/rebuild")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildUserCounters() {
+        int rows = userOrderCounterService.rebuild();
+        return ResponseEntity.ok(new ApiResponse<>(Map.of("rows", rows)));
+    }
+
+    /**
+     * Compare all per-user order counters with a full recompute
+     * GET /api/analytics/user-counters/consistency
+     */
+    @GetMapping("/user-counters/consistency")
+    public ResponseEntity<ApiResponse<CounterCheckDTO>> checkUserCounters() {
+        CounterCheckDTO result = userOrderCounterService.check();
+        ApiResponse<CounterCheckDTO> response = new ApiResponse<>(result);
+        response.addMeta("consistent", result.isConsistent());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * A 400 error for a reversed or too long date range, or null if the range is valid
+     */
+    private ResponseEntity<ApiError> validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            Map<String, Object> details = new HashMap<>();
+            details.put("from", from.toString());
+            details.put("to", to.toString());
+            details.put("maxDays", maxDays);
+            ApiError error = new ApiError("VALIDATION_ERROR", "Date range must be ordered and span at most " + maxDays + " days", details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        return null;
+    }
+
+    /**
+     * Exception handler for malformed request parameters (e.g. a date that is not yyyy-MM-dd)
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiError> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        Map<String, Object> details = new HashMap<>();
+        details.put(ex.getName(), String.valueOf(ex.getValue()));
+        ApiError error = new ApiError("VALIDATION_ERROR", "Invalid request parameter", details);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+}
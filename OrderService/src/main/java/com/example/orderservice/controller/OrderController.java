@@ -1,23 +1,41 @@
 package com.example.orderservice.controller;
 
 import com.example.orderservice.dto.*;
+import com.example.orderservice.service.OrderChangeFeed;
 import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatusTransitionService;
 import com.example.orderservice.util.ApiError;
 import com.example.orderservice.util.ApiResponse;
+import com.example.orderservice.util.CursorPage;
+import com.example.orderservice.util.CursorPaginatedResponse;
+import com.example.orderservice.util.OrderExportWriter;
 import com.example.orderservice.util.PaginatedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST Controller for Order endpoints.
@@ -30,6 +48,33 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderStatusTransitionService orderStatusTransitionService;
+
+    @Autowired
+    private OrderChangeFeed orderChangeFeed;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orders.batch.max-size:1000}")
+    private int batchMaxSize;
+
+    @Value("${orders.multi-get.max-ids:1000}")
+    private int multiGetMaxIds;
+
+    @Value("${orders.status-transitions.max-ids:100000}")
+    private int transitionMaxIds;
+
+    @Value("${orders.changes.max-limit:1000}")
+    private int changesMaxLimit;
+
+    @Value("${orders.changes.max-wait-ms:30000}")
+    private long changesMaxWaitMs;
+
+    @Value("${orders.changes.sse-timeout-ms:1800000}")
+    private long changesSseTimeoutMs;
+
     /**
      * Create a new order
      * POST /api/orders
@@ -40,22 +85,105 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(new ApiResponse<>(order));
     }
 
+    /**
+     * Create many orders in one call
+     * POST /api/orders/batch
+     * Returns one result per order, in request order (201 if all were created, 207 otherwise)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createOrdersBatch(@RequestBody List<CreateOrderDTO> createOrderDTOs) {
+        if (createOrderDTOs == null || createOrderDTOs.isEmpty() || createOrderDTOs.size() > batchMaxSize) {
+            Map<String, Object> details = new HashMap<>();
+            details.put("maxSize", batchMaxSize);
+            ApiError error = new ApiError("VALIDATION_ERROR", "Batch must contain between 1 and " + batchMaxSize + " orders", details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        List<BatchOrderResultDTO> results = orderService.createOrdersBatch(createOrderDTOs);
+        long created = results.stream()
+                .filter(result -> BatchOrderResultDTO.CREATED.equals(result.getStatus()))
+                .count();
+
+        ApiResponse<List<BatchOrderResultDTO>> response = new ApiResponse<>(results);
+        response.addMeta("created", created);
+        response.addMeta("failed", results.size() - created);
+        HttpStatus status = created == results.size() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Move many orders to a new status with set-based updates
+     * POST /api/orders/status-transitions {"targetStatus": "SHIPPED", "ids": [1, 2, 3]}
+     * or {"targetStatus": "SHIPPED", "currentStatus": "CREATED", "userId": 1, "createdBefore": "2024-01-31T00:00:00"}
+     * Returns the number of orders moved and, for a list of IDs, the ones that could not be moved.
+     */
+    @PostMapping("/status-transitions")
+    public ResponseEntity<?> transitionStatus(@Valid @RequestBody OrderStatusTransitionDTO transitionDTO) {
+        String targetStatus = transitionDTO.getTargetStatus();
+        Set<String> sources = OrderStatusTransitionService.sourcesOf(targetStatus);
+        Map<String, Object> details = new HashMap<>();
+        details.put("targetStatus", targetStatus);
+        details.put("allowedFrom", sources);
+        if (sources.isEmpty()) {
+            ApiError error = new ApiError("VALIDATION_ERROR", "No order can move to status " + targetStatus, details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        if (transitionDTO.getCurrentStatus() != null && !sources.contains(transitionDTO.getCurrentStatus())) {
+            details.put("currentStatus", transitionDTO.getCurrentStatus());
+            ApiError error = new ApiError("VALIDATION_ERROR", "Orders cannot move from "
+                    + transitionDTO.getCurrentStatus() + " to " + targetStatus, details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        List<Long> ids = transitionDTO.getIds();
+        boolean byIds = ids != null && !ids.isEmpty();
+        if (byIds == transitionDTO.hasFilter() || (byIds && ids.size() > transitionMaxIds)) {
+            details.put("maxIds", transitionMaxIds);
+            ApiError error = new ApiError("VALIDATION_ERROR", "Either between 1 and " + transitionMaxIds
+                    + " IDs or a filter (userId, currentStatus, createdBefore) is required", details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        OrderStatusTransitionResultDTO result = byIds
+                ? orderStatusTransitionService.transitionByIds(ids, targetStatus)
+                : orderStatusTransitionService.transitionByFilter(transitionDTO.getUserId(),
+                        transitionDTO.getCurrentStatus(), transitionDTO.getCreatedBefore(), targetStatus);
+        ApiResponse<OrderStatusTransitionResultDTO> response = new ApiResponse<>(result);
+        response.addMeta("updated", result.updated());
+        response.addMeta("rejected", result.rejectedIds().size());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get all orders with pagination and optional filters
      * GET /api/orders?page=1&limit=20&userId=1&status=CREATED
+     * Cursor mode: GET /api/orders?pagination=cursor&limit=20 then GET /api/orders?cursor={meta.nextCursor}
+     * (add includeTotal=true to also count matching orders)
+     * Multi-get: GET /api/orders?ids=1,2,3 (see POST /api/orders/lookup)
      */
     @GetMapping
-    public ResponseEntity<PaginatedResponse<OrderDTO>> getAllOrders(
+    public ResponseEntity<?> getAllOrders(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int limit,
             @RequestParam(required = false) Integer userId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) List<Long> ids) {
+
+        if (ids != null) {
+            return getOrdersByIds(ids);
+        }
 
         // Validate pagination parameters
         if (page < 1) page = 1;
         if (limit < 1) limit = 20;
         if (limit > 100) limit = 100;
 
+        if (isCursorMode(pagination, cursor)) {
+            return getOrdersByCursor(cursor, limit, userId, status, includeTotal);
+        }
+
         Page<OrderDTO> ordersPage = orderService.getAllOrders(page, limit, userId, status);
         PaginatedResponse<OrderDTO> response = new PaginatedResponse<>(
                 ordersPage.getContent(),
@@ -67,6 +195,107 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get many orders with their items by ID, for ID sets too large for a query string
+     * POST /api/orders/lookup with body [1, 2, 3]
+     * Returns one result per ID, in request order (status FOUND or NOT_FOUND)
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupOrders(@RequestBody List<Long> ids) {
+        return getOrdersByIds(ids);
+    }
+
+    /**
+     * Stream every matching order, for reconciliation and bulk extracts
+     * GET /api/orders/export?format=ndjson|csv&includeItems=true&userId=1&status=PAID
+     *     &from=2024-01-01T00:00:00&to=2024-02-01T00:00:00 (from inclusive, to exclusive)
+     * The body is written while the orders are read (chunked transfer), without paging or counting.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") OrderExportWriter.Format format,
+            @RequestParam(defaultValue = "false") boolean includeItems,
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        StreamingResponseBody body = out -> {
+            OrderExportWriter writer = OrderExportWriter.open(format, includeItems, out, objectMapper);
+            orderService.exportOrders(userId, status, from, to, includeItems, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, format.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Order change feed: the changes to any order after a cursor, oldest first, to follow orders without polling the lists
+     * GET /api/orders/changes?since={meta.nextCursor}&limit=100&waitMs=30000
+     * Without since, starts at the latest change. With waitMs, an empty page is held open until a change
+     * arrives or the wait ends (long-poll). 410 when the cursor is older than the feed retention.
+     */
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<?>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long waitMs) {
+
+        if (limit < 1) limit = 100;
+        if (limit > changesMaxLimit) limit = changesMaxLimit;
+        int pageLimit = limit;
+
+        Long cursor = changeCursor(since);
+        if (cursor == null) {
+            return completed(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(invalidChangeCursor(since)));
+        }
+        OrderChangeFeed.Page page = orderChangeFeed.read(cursor, pageLimit);
+        long wait = Math.min(Math.max(waitMs, 0), changesMaxWaitMs);
+        if (page.expired() || !page.changes().isEmpty() || wait == 0) {
+            return completed(changesResponse(cursor, pageLimit, page));
+        }
+
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(wait,
+                () -> changesResponse(cursor, pageLimit, new OrderChangeFeed.Page(List.of(), false)));
+        OrderChangeFeed.Waiter waiter = orderChangeFeed.await(cursor, pageLimit,
+                changes -> result.setResult(changesResponse(cursor, pageLimit, changes)));
+        if (waiter == null) {
+            return completed(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(changeFeedFull()));
+        }
+        result.onCompletion(() -> orderChangeFeed.cancel(waiter));
+        return result;
+    }
+
+    /**
+     * Order change feed as Server-Sent Events (Accept: text/event-stream): one "change" event per change, with
+     * the sequence number as event id, and a heartbeat comment while idle
+     * GET /api/orders/changes?since={cursor}
+     * A reconnecting client resumes after its Last-Event-ID. An "expired" event closes a stream that fell
+     * behind the retention; errors before the stream opens are a single "error" event with the HTTP status.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletResponse response) {
+
+        String from = lastEventId != null ? lastEventId : since;
+        SseEmitter emitter = new SseEmitter(changesSseTimeoutMs);
+        Long cursor = changeCursor(from);
+        if (cursor == null) {
+            return rejectedStream(emitter, response, HttpStatus.BAD_REQUEST, invalidChangeCursor(from));
+        }
+        if (orderChangeFeed.isExpired(cursor)) {
+            return rejectedStream(emitter, response, HttpStatus.GONE, orderChangeFeed.expiredError(cursor));
+        }
+        if (!orderChangeFeed.subscribe(cursor, emitter)) {
+            return rejectedStream(emitter, response, HttpStatus.SERVICE_UNAVAILABLE, changeFeedFull());
+        }
+        return emitter;
+    }
+
     /**
      * Get order by ID
      * GET /api/orders/{id}
@@ -84,6 +313,23 @@ public class OrderController {
         }
     }
 
+    /**
+     * Get order by order number
+     * GET /api/orders/by-number/{orderNumber}
+     */
+    @GetMapping("/by-number/{orderNumber}")
+    public ResponseEntity<?> getOrderByNumber(@PathVariable String orderNumber) {
+        Optional<OrderDTO> order = orderService.getOrderByNumber(orderNumber);
+        if (order.isPresent()) {
+            return ResponseEntity.ok(new ApiResponse<>(order.get()));
+        } else {
+            Map<String, Object> details = new HashMap<>();
+            details.put("orderNumber", orderNumber);
+            ApiError error = new ApiError("NOT_FOUND", "Order with number " + orderNumber + " not found", details);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
     /**
      * Update an order
      * PUT /api/orders/{id}
@@ -101,6 +347,36 @@ public class OrderController {
         }
     }
 
+    /**
+     * Update some fields of an order, if it is still at the version the client read
+     * PATCH /api/orders/{id} {"version": 3, "status": "PAID"}
+     * Returns the new version, or 409 with the current version if the order has changed since.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchOrder(@PathVariable Long id, @Valid @RequestBody PatchOrderDTO patchOrderDTO) {
+        Map<String, Object> details = new HashMap<>();
+        details.put("orderId", id);
+        if (!patchOrderDTO.hasChanges()) {
+            ApiError error = new ApiError("VALIDATION_ERROR", "At least one field to update is required", details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        OrderPatchResultDTO result = orderService.patchOrder(id, patchOrderDTO);
+        switch (result.getStatus()) {
+            case OrderPatchResultDTO.UPDATED:
+                return ResponseEntity.ok(new ApiResponse<>(result));
+            case OrderPatchResultDTO.CONFLICT:
+                details.put("expectedVersion", patchOrderDTO.getVersion());
+                details.put("currentVersion", result.getVersion());
+                ApiError conflict = new ApiError("CONFLICT", "Order " + id + " has been modified since version "
+                        + patchOrderDTO.getVersion(), details);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(conflict);
+            default:
+                ApiError notFound = new ApiError("NOT_FOUND", "Order with ID " + id + " not found", details);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(notFound);
+        }
+    }
+
     /**
      * Delete an order
      * DELETE /api/orders/{id}
@@ -121,18 +397,26 @@ public class OrderController {
     /**
      * Get orders by user ID
      * GET /api/orders/user/{userId}?page=1&limit=20
+     * Cursor mode: GET /api/orders/user/{userId}?pagination=cursor&limit=20 then ?cursor={meta.nextCursor}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<PaginatedResponse<OrderDTO>> getOrdersByUserId(
+    public ResponseEntity<?> getOrdersByUserId(
             @PathVariable Integer userId,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
         // Validate pagination parameters
         if (page < 1) page = 1;
         if (limit < 1) limit = 20;
         if (limit > 100) limit = 100;
 
+        if (isCursorMode(pagination, cursor)) {
+            return getOrdersByCursor(cursor, limit, userId, null, includeTotal);
+        }
+
         Page<OrderDTO> ordersPage = orderService.getOrdersByUserId(userId, page, limit);
         PaginatedResponse<OrderDTO> response = new PaginatedResponse<>(
                 ordersPage.getContent(),
@@ -144,6 +428,25 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the order count, order amount and latest order date of a user, overall and per status
+     * GET /api/orders/user/{userId}/summary
+     */
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<ApiResponse<UserOrderSummaryDTO>> getUserOrderSummary(@PathVariable Integer userId) {
+        return ResponseEntity.ok(new ApiResponse<>(orderService.getUserOrderSummary(userId)));
+    }
+
+    /**
+     * Purge the cached existence check for a user (e.g. after the user was deleted)
+     * DELETE /api/orders/user/{userId}/cache
+     */
+    @DeleteMapping("/user/{userId}/cache")
+    public ResponseEntity<Void> invalidateUserCache(@PathVariable Integer userId) {
+        orderService.invalidateUserCache(userId);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Health check endpoint
      * GET /api/orders/health
@@ -177,6 +480,111 @@ public class OrderController {
         return ResponseEntity.ok(new ApiResponse<>(enrichedData));
     }
 
+    /**
+     * Build a multi-get response with found/notFound counts, or a 400 error for an empty or oversized ID list
+     */
+    private ResponseEntity<?> getOrdersByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > multiGetMaxIds) {
+            Map<String, Object> details = new HashMap<>();
+            details.put("maxIds", multiGetMaxIds);
+            ApiError error = new ApiError("VALIDATION_ERROR", "Lookup must contain between 1 and " + multiGetMaxIds + " IDs", details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        List<OrderLookupResultDTO> results = orderService.getOrdersByIds(ids);
+        long found = results.stream()
+                .filter(result -> OrderLookupResultDTO.FOUND.equals(result.getStatus()))
+                .count();
+
+        ApiResponse<List<OrderLookupResultDTO>> response = new ApiResponse<>(results);
+        response.addMeta("found", found);
+        response.addMeta("notFound", results.size() - found);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Cursor mode is requested explicitly or implied by a cursor from a previous page
+     */
+    private boolean isCursorMode(String pagination, String cursor) {
+        return cursor != null || "cursor".equalsIgnoreCase(pagination);
+    }
+
+    /**
+     * Build a cursor-paginated response, or a 400 error for a malformed cursor
+     */
+    private ResponseEntity<?> getOrdersByCursor(String cursor, int limit, Integer userId, String status, boolean includeTotal) {
+        try {
+            CursorPage<OrderDTO> ordersPage = orderService.getOrdersByCursor(cursor, limit, userId, status, includeTotal);
+            return ResponseEntity.ok(new CursorPaginatedResponse<>(ordersPage, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> details = new HashMap<>();
+            details.put("cursor", cursor);
+            ApiError error = new ApiError("INVALID_CURSOR", "Invalid pagination cursor", details);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * The cursor of a change feed request: the latest change when absent, null when malformed
+     */
+    private Long changeCursor(String since) {
+        if (since == null || since.isBlank()) {
+            return orderChangeFeed.head();
+        }
+        try {
+            long cursor = Long.parseLong(since.trim());
+            return cursor >= 0 ? cursor : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Build a change feed page with the cursor to continue from, or a 410 error for an expired cursor
+     */
+    private ResponseEntity<?> changesResponse(long cursor, int limit, OrderChangeFeed.Page page) {
+        if (page.expired()) {
+            return ResponseEntity.status(HttpStatus.GONE).body(orderChangeFeed.expiredError(cursor));
+        }
+        List<OrderChangeDTO> changes = page.changes();
+        long nextCursor = changes.isEmpty() ? cursor : changes.get(changes.size() - 1).seq();
+        ApiResponse<List<OrderChangeDTO>> response = new ApiResponse<>(changes);
+        response.addMeta("limit", limit);
+        response.addMeta("nextCursor", Long.toString(nextCursor));
+        response.addMeta("hasMore", changes.size() == limit);
+        return ResponseEntity.ok(response);
+    }
+
+    private static DeferredResult<ResponseEntity<?>> completed(ResponseEntity<?> response) {
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+        result.setResult(response);
+        return result;
+    }
+
+    /**
+     * Answer a stream request with a single error event, keeping the HTTP status so EventSource clients do not reconnect
+     */
+    private static SseEmitter rejectedStream(SseEmitter emitter, HttpServletResponse response, HttpStatus status, ApiError error) {
+        response.setStatus(status.value());
+        try {
+            emitter.send(SseEmitter.event().name("error").data(error));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    private static ApiError invalidChangeCursor(String cursor) {
+        Map<String, Object> details = new HashMap<>();
+        details.put("cursor", cursor);
+        return new ApiError("INVALID_CURSOR", "Invalid change feed cursor", details);
+    }
+
+    private static ApiError changeFeedFull() {
+        return new ApiError("SERVICE_UNAVAILABLE", "Too many change feed connections, retry later");
+    }
+
     /**
      * Exception handler for validation errors
      */
@@ -192,6 +600,17 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Exception handler for malformed request parameters (e.g. a date that is not ISO-8601 or an unknown export format)
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiError> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        Map<String, Object> details = new HashMap<>();
+        details.put(ex.getName(), String.valueOf(ex.getValue()));
+        ApiError error = new ApiError("VALIDATION_ERROR", "Invalid request parameter", details);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     /**
      * Global exception handler
      */
@@ -4,6 +4,8 @@ import com.example.orderservice.dto.*;
 import com.example.orderservice.service.OrderItemService;
 import com.example.orderservice.util.ApiError;
 import com.example.orderservice.util.ApiResponse;
+import com.example.orderservice.util.CursorPage;
+import com.example.orderservice.util.CursorPaginatedResponse;
 import com.example.orderservice.util.PaginatedResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,18 +51,35 @@ public class OrderItemController {
     /**
      * Get all order items with pagination and optional filters
      * GET /api/order-items?page=1&limit=20&orderId=1
+     * Cursor mode: GET /api/order-items?pagination=cursor&limit=20 then GET /api/order-items?cursor={meta.nextCursor}
+     * (add includeTotal=true to also count matching items)
      */
     @GetMapping
-    public ResponseEntity<PaginatedResponse<OrderItemDTO>> getAllOrderItems(
+    public ResponseEntity<?> getAllOrderItems(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(required = false) Long orderId) {
+            @RequestParam(required = false) Long orderId,
+            @RequestParam(required = false) String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
         // Validate pagination parameters
         if (page < 1) page = 1;
         if (limit < 1) limit = 20;
         if (limit > 100) limit = 100;
 
+        if (cursor != null || "cursor".equalsIgnoreCase(pagination)) {
+            try {
+                CursorPage<OrderItemDTO> itemsPage = orderItemService.getOrderItemsByCursor(cursor, limit, orderId, includeTotal);
+                return ResponseEntity.ok(new CursorPaginatedResponse<>(itemsPage, limit));
+            } catch (IllegalArgumentException e) {
+                Map<String, Object> details = new HashMap<>();
+                details.put("cursor", cursor);
+                ApiError error = new ApiError("INVALID_CURSOR", "Invalid pagination cursor", details);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+        }
+
         Page<OrderItemDTO> itemsPage = orderItemService.getAllOrderItems(page, limit, orderId);
         PaginatedResponse<OrderItemDTO> response = new PaginatedResponse<>(
                 itemsPage.getContent(),
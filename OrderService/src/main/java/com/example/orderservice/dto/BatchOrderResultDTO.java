@@ -0,0 +1,60 @@
+package com.example.orderservice.dto;
+
+/**
+ * DTO for the result of one order in a batch creation request
+ */
+public class BatchOrderResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+    private String status;
+    private OrderDTO order;
+    private String error;
+
+    // Constructors
+    public BatchOrderResultDTO() {
+    }
+
+    public BatchOrderResultDTO(int index, String status, OrderDTO order, String error) {
+        this.index = index;
+        this.status = status;
+        this.order = order;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public OrderDTO getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderDTO order) {
+        this.order = order;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.orderservice.dto;
+
+import java.util.List;
+
+/**
+ * Result of comparing the per-user order counters against a full recompute from the live and archived orders
+ */
+public record CounterCheckDTO(
+        int rowsChecked,
+        List<Mismatch> mismatches) {
+
+    /**
+     * A counter row that differs from the recomputed one (a missing row counts as zero)
+     */
+    public record Mismatch(UserOrderCounterDTO expected, UserOrderCounterDTO actual) {
+    }
+
+    public boolean isConsistent() {
+        return mismatches.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.orderservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the order change feed: which order changed, how, and its position in the feed (seq)
+ */
+public record OrderChangeDTO(
+        long seq,
+        Long orderId,
+        String type,
+        LocalDateTime changedAt) {
+}
@@ -17,6 +17,7 @@ public class OrderDTO {
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
     private List<OrderItemDTO> orderItems;
 
     // Constructors
@@ -96,6 +97,14 @@ public class OrderDTO {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<OrderItemDTO> getOrderItems() {
         return orderItems;
     }
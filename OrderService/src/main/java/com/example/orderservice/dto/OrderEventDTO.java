@@ -0,0 +1,19 @@
+package com.example.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of the order events published on Kafka.
+ * previousStatus is only set on status changes.
+ */
+public record OrderEventDTO(
+        String eventType,
+        Long orderId,
+        String orderNumber,
+        Integer userId,
+        String status,
+        String previousStatus,
+        BigDecimal totalAmount,
+        LocalDateTime occurredAt) {
+}
@@ -0,0 +1,49 @@
+package com.example.orderservice.dto;
+
+/**
+ * DTO for the result of one requested ID in a multi-get request
+ */
+public class OrderLookupResultDTO {
+
+    public static final String FOUND = "FOUND";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private Long id;
+    private String status;
+    private OrderDTO order;
+
+    // Constructors
+    public OrderLookupResultDTO() {
+    }
+
+    public OrderLookupResultDTO(Long id, String status, OrderDTO order) {
+        this.id = id;
+        this.status = status;
+        this.order = order;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public OrderDTO getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderDTO order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.orderservice.dto;
+
+/**
+ * DTO for the result of a conditional order update: the order's version after the update,
+ * or its current version when it had changed since the client read it
+ */
+public class OrderPatchResultDTO {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private Long id;
+    private String status;
+    private Long version;
+
+    // Constructors
+    public OrderPatchResultDTO() {
+    }
+
+    public OrderPatchResultDTO(Long id, String status, Long version) {
+        this.id = id;
+        this.status = status;
+        this.version = version;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Order count, revenue and item units of one day for one dimension value
+ */
+public record OrderRollupDTO(
+        LocalDate date,
+        String dimension,
+        String value,
+        long orderCount,
+        BigDecimal revenue,
+        long itemUnits) {
+}
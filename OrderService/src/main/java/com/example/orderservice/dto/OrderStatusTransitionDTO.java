@@ -0,0 +1,79 @@
+package com.example.orderservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for a bulk status transition: either a list of order IDs, or a filter
+ * (user, current status, created before) selecting the orders to move to the target status
+ */
+public class OrderStatusTransitionDTO {
+
+    @NotBlank(message = "Target status is required")
+    @Size(max = 50, message = "Target status must not exceed 50 characters")
+    private String targetStatus;
+
+    private List<Long> ids;
+
+    private Integer userId;
+
+    @Size(max = 50, message = "Current status must not exceed 50 characters")
+    private String currentStatus;
+
+    private LocalDateTime createdBefore;
+
+    // Constructors
+    public OrderStatusTransitionDTO() {
+    }
+
+    // Getters and Setters
+    public String getTargetStatus() {
+        return targetStatus;
+    }
+
+    public void setTargetStatus(String targetStatus) {
+        this.targetStatus = targetStatus;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public void setCurrentStatus(String currentStatus) {
+        this.currentStatus = currentStatus;
+    }
+
+    public LocalDateTime getCreatedBefore() {
+        return createdBefore;
+    }
+
+    public void setCreatedBefore(LocalDateTime createdBefore) {
+        this.createdBefore = createdBefore;
+    }
+
+    /**
+     * Whether any filter criterion is set
+     */
+    public boolean hasFilter() {
+        return userId != null || currentStatus != null || createdBefore != null;
+    }
+}
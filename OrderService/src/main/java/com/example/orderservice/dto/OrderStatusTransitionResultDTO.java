@@ -0,0 +1,13 @@
+package com.example.orderservice.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk status transition: how many orders were moved, and the requested IDs
+ * that were not (unknown orders, or orders whose status cannot move to the target)
+ */
+public record OrderStatusTransitionResultDTO(
+        String targetStatus,
+        long updated,
+        List<Long> rejectedIds) {
+}
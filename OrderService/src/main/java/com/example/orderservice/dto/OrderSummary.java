@@ -0,0 +1,21 @@
+package com.example.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the scalar columns of an order, used by list views.
+ * Selected directly by JPQL constructor expressions, so no entity is managed or dirty-checked.
+ */
+public record OrderSummary(
+        Long id,
+        String orderNumber,
+        Integer userId,
+        String shippingAddress,
+        String billingAddress,
+        BigDecimal totalAmount,
+        String status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version) {
+}
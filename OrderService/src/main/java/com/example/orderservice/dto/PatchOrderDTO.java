@@ -0,0 +1,81 @@
+package com.example.orderservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a conditional partial update of an Order.
+ * Only the non-null fields are written, and only if the order is still at the given version.
+ */
+public class PatchOrderDTO {
+
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    @Size(max = 300, message = "Shipping address must not exceed 300 characters")
+    private String shippingAddress;
+
+    @Size(max = 300, message = "Billing address must not exceed 300 characters")
+    private String billingAddress;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Total amount must be greater than 0")
+    private BigDecimal totalAmount;
+
+    @Size(max = 50, message = "Status must not exceed 50 characters")
+    private String status;
+
+    // Constructors
+    public PatchOrderDTO() {
+    }
+
+    // Getters and Setters
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getShippingAddress() {
+        return shippingAddress;
+    }
+
+    public void setShippingAddress(String shippingAddress) {
+        this.shippingAddress = shippingAddress;
+    }
+
+    public String getBillingAddress() {
+        return billingAddress;
+    }
+
+    public void setBillingAddress(String billingAddress) {
+        this.billingAddress = billingAddress;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Whether at least one field is to be written
+     */
+    public boolean hasChanges() {
+        return shippingAddress != null || billingAddress != null || totalAmount != null || status != null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.orderservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Result of comparing the rollups of a date range against a full recompute from orders and order_items
+ */
+public record RollupCheckDTO(
+        LocalDate from,
+        LocalDate to,
+        int bucketsChecked,
+        List<Mismatch> mismatches) {
+
+    /**
+     * A bucket whose stored rollup differs from the recomputed one (a missing row counts as zero)
+     */
+    public record Mismatch(OrderRollupDTO expected, OrderRollupDTO actual) {
+    }
+
+    public boolean isConsistent() {
+        return mismatches.isEmpty();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One stripe of the order counters of a user in one status
+ */
+public record UserOrderCounterDTO(
+        Integer userId,
+        String status,
+        int stripe,
+        long orderCount,
+        BigDecimal totalAmount,
+        long archivedCount,
+        BigDecimal archivedAmount,
+        LocalDateTime lastOrderAt) {
+}
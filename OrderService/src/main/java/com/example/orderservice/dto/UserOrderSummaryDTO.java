@@ -0,0 +1,29 @@
+package com.example.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order count, order amount and latest order date of a user, overall and per status.
+ * Counts include archived orders; archivedOrderCount tells how many of them are archived.
+ */
+public record UserOrderSummaryDTO(
+        Integer userId,
+        long orderCount,
+        BigDecimal totalAmount,
+        long archivedOrderCount,
+        LocalDateTime lastOrderAt,
+        List<StatusSummary> byStatus) {
+
+    /**
+     * The orders of the user in one status
+     */
+    public record StatusSummary(
+            String status,
+            long orderCount,
+            BigDecimal totalAmount,
+            long archivedOrderCount,
+            LocalDateTime lastOrderAt) {
+    }
+}
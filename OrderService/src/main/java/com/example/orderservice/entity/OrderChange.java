@@ -0,0 +1,92 @@
+package com.example.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to an order, as served by the change feed (GET /api/orders/changes).
+ * Maps to the 'order_changes' table.
+ * <p>
+ * Writers insert the row with their order change and no sequence number. OrderChangeSequencer then
+ * numbers committed rows in order of id, one batch at a time under the lock of the order_change_sequence row,
+ * so sequence numbers only ever grow as rows become visible: a reader that has seen seq n never misses a
+ * later change with a lower number, which an auto-increment id alone would allow (ids are taken at insert
+ * time but become visible at commit, in any order).
+ */
+@Entity
+@Table(name = "order_changes", indexes = {
+        @Index(name = "idx_order_changes_seq", columnList = "seq", unique = true),
+        @Index(name = "idx_order_changes_created_at", columnList = "created_at")
+})
+public class OrderChange {
+
+    /**
+     * Kind of change: the feed says which order changed, clients read the order itself if they need it
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED, ARCHIVED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private Type changeType;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OrderChange() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Type getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(Type changeType) {
+        this.changeType = changeType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.orderservice.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row state of the order change feed. Maps to the 'order_change_sequence' table (id 1).
+ * <p>
+ * lastSeq is the highest sequence number handed out; the row is locked while numbering a batch, so only one
+ * instance numbers changes at a time. purgedSeq is the highest sequence number removed by retention: a feed
+ * cursor below it has missed changes and must start over.
+ */
+@Entity
+@Table(name = "order_change_sequence")
+public class OrderChangeSequence {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    @Column(name = "purged_seq", nullable = false)
+    private long purgedSeq;
+
+    // Constructors
+    public OrderChangeSequence() {
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+
+    public long getPurgedSeq() {
+        return purgedSeq;
+    }
+
+    public void setPurgedSeq(long purgedSeq) {
+        this.purgedSeq = purgedSeq;
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.orderservice.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,15 +15,25 @@ import java.time.LocalDateTime;
  * Maps to the 'order_items' table in the database.
  */
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_order_items_order_created_at_id", columnList = "order_id, created_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = OrderItem.CACHE_REGION)
 public class OrderItem {
 
+    public static final String CACHE_REGION = "orderItems";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
+    // fk_order_items_order is ON DELETE CASCADE: deleting an order with SQL deletes its items (OrderDeleter)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Order order;
 
     @Column(name = "product_id", nullable = false, length = 255)
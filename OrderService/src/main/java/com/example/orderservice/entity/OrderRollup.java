@@ -0,0 +1,175 @@
+package com.example.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Daily order count, revenue and item units for one value of a dimension.
+ * Maps to the 'order_rollups' table, keyed by (dimension, dimension value, day of order creation, stripe).
+ * <p>
+ * Rows are maintained incrementally by OrderRollupRecorder as orders and items change, so a
+ * dashboard reads a few rows per bucket instead of scanning orders and order_items. Each order counts
+ * in the stripe of its ID, and a bucket is the sum of its stripes. A row whose orders were all deleted
+ * is kept with zero counts.
+ */
+@Entity
+@Table(name = "order_rollups", indexes = @Index(name = "idx_order_rollups_bucket_date", columnList = "bucket_date"))
+@IdClass(OrderRollup.Key.class)
+public class OrderRollup {
+
+    /**
+     * What a rollup row is aggregated by; ALL rows have an empty dimension value
+     */
+    public enum Dimension {
+        ALL, STATUS, USER
+    }
+
+    /**
+     * Primary key of a rollup row
+     */
+    public static class Key implements Serializable {
+        private Dimension dimension;
+        private String dimensionValue;
+        private LocalDate bucketDate;
+        private int stripe;
+
+        public Key() {
+        }
+
+        public Key(Dimension dimension, String dimensionValue, LocalDate bucketDate, int stripe) {
+            this.dimension = dimension;
+            this.dimensionValue = dimensionValue;
+            this.bucketDate = bucketDate;
+            this.stripe = stripe;
+        }
+
+        public Dimension getDimension() {
+            return dimension;
+        }
+
+        public String getDimensionValue() {
+            return dimensionValue;
+        }
+
+        public LocalDate getBucketDate() {
+            return bucketDate;
+        }
+
+        public int getStripe() {
+            return stripe;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return dimension == key.dimension && Objects.equals(dimensionValue, key.dimensionValue)
+                    && Objects.equals(bucketDate, key.bucketDate) && stripe == key.stripe;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, dimensionValue, bucketDate, stripe);
+        }
+
+        @Override
+        public String toString() {
+            return dimension + ":" + dimensionValue + "@" + bucketDate + "#" + stripe;
+        }
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 20)
+    private Dimension dimension;
+
+    @Id
+    @Column(name = "dimension_value", nullable = false, length = 50)
+    private String dimensionValue;
+
+    @Id
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Id
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "item_units", nullable = false)
+    private long itemUnits;
+
+    // Constructors
+    public OrderRollup() {
+    }
+
+    // Getters and Setters
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(Dimension dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getDimensionValue() {
+        return dimensionValue;
+    }
+
+    public void setDimensionValue(String dimensionValue) {
+        this.dimensionValue = dimensionValue;
+    }
+
+    public LocalDate getBucketDate() {
+        return bucketDate;
+    }
+
+    public void setBucketDate(LocalDate bucketDate) {
+        this.bucketDate = bucketDate;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public void setStripe(int stripe) {
+        this.stripe = stripe;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getItemUnits() {
+        return itemUnits;
+    }
+
+    public void setItemUnits(long itemUnits) {
+        this.itemUnits = itemUnits;
+    }
+
+    public Key getKey() {
+        return new Key(dimension, dimensionValue, bucketDate, stripe);
+    }
+}
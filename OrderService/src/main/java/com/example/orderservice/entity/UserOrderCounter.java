@@ -0,0 +1,172 @@
+package com.example.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Order count, order amount and latest order date of one user in one status, for one stripe.
+ * Maps to the 'user_order_counters' table, keyed by (user ID, status, stripe).
+ * <p>
+ * Each order counts in the stripe of its ID modulo orders.user-counters.stripes, so concurrent orders
+ * of one user update different rows instead of queueing on one. A user's totals are the sum of their
+ * stripes. Orders moved to the archive are counted apart (archivedCount, archivedAmount): they no
+ * longer show in listings, but remain part of the user's history.
+ * <p>
+ * Rows are maintained by UserOrderCounterRecorder as orders change, and verified by UserOrderCounterService.
+ */
+@Entity
+@Table(name = "user_order_counters")
+@IdClass(UserOrderCounter.Key.class)
+public class UserOrderCounter {
+
+    /**
+     * Primary key of a counter row
+     */
+    public static class Key implements Serializable {
+        private Integer userId;
+        private String status;
+        private int stripe;
+
+        public Key() {
+        }
+
+        public Key(Integer userId, String status, int stripe) {
+            this.userId = userId;
+            this.status = status;
+            this.stripe = stripe;
+        }
+
+        public Integer getUserId() {
+            return userId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public int getStripe() {
+            return stripe;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return stripe == key.stripe && Objects.equals(userId, key.userId) && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, status, stripe);
+        }
+
+        @Override
+        public String toString() {
+            return userId + ":" + status + "#" + stripe;
+        }
+    }
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Id
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @Id
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "archived_count", nullable = false)
+    private long archivedCount;
+
+    @Column(name = "archived_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal archivedAmount = BigDecimal.ZERO;
+
+    @Column(name = "last_order_at")
+    private LocalDateTime lastOrderAt;
+
+    // Constructors
+    public UserOrderCounter() {
+    }
+
+    // Getters and Setters
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public void setStripe(int stripe) {
+        this.stripe = stripe;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getArchivedCount() {
+        return archivedCount;
+    }
+
+    public void setArchivedCount(long archivedCount) {
+        this.archivedCount = archivedCount;
+    }
+
+    public BigDecimal getArchivedAmount() {
+        return archivedAmount;
+    }
+
+    public void setArchivedAmount(BigDecimal archivedAmount) {
+        this.archivedAmount = archivedAmount;
+    }
+
+    public LocalDateTime getLastOrderAt() {
+        return lastOrderAt;
+    }
+
+    public void setLastOrderAt(LocalDateTime lastOrderAt) {
+        this.lastOrderAt = lastOrderAt;
+    }
+
+    public Key getKey() {
+        return new Key(userId, status, stripe);
+    }
+}
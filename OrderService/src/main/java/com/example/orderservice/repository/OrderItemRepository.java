@@ -1,17 +1,38 @@
 package com.example.orderservice.repository;
 
 import com.example.orderservice.entity.OrderItem;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * Repository interface for OrderItem entity.
  * Provides CRUD operations and custom queries.
  */
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, JpaSpecificationExecutor<OrderItem> {
+
+    /**
+     * ID of the order an item belongs to, without loading the item
+     */
+    @Query("SELECT i.order.id FROM OrderItem i WHERE i.id = :id")
+    Optional<Long> findOrderIdById(@Param("id") Long id);
+
+    /**
+     * Find an order item by ID, locked until the end of the transaction.
+     * Reads the current row (never the second-level cache) so a change computed from it is not lost
+     * to a concurrent change of the same item. Lock the item's order first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OrderItem> findForUpdateById(Long id);
 
     /**
      * Find order items by order ID with pagination
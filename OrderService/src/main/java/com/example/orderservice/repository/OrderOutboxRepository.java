@@ -0,0 +1,13 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.OrderOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for OrderOutboxEvent entity.
+ * Used by the outbox relay to delete published events; it claims pending events with SQL (see OrderOutboxRelay).
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+}
@@ -1,11 +1,20 @@
 package com.example.orderservice.repository;
 
+import com.example.orderservice.dto.OrderSummary;
 import com.example.orderservice.entity.Order;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,13 +22,56 @@ import java.util.Optional;
  * Provides CRUD operations and custom queries.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+
+    String SUMMARY_SELECT = "SELECT new com.example.orderservice.dto.OrderSummary("
+            + "o.id, o.orderNumber, o.userId, o.shippingAddress, o.billingAddress, "
+            + "o.totalAmount, o.status, o.createdAt, o.updatedAt, o.version) FROM Order o";
+
+    /**
+     * Find an order by ID with its items fetched in the same query
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsById(Long id);
+
+    /**
+     * Find an order by ID, locked until the end of the transaction.
+     * Writers that change an order or its items take this lock first, so they see its current
+     * state and always lock the order row before any item row.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findForUpdateById(Long id);
+
+    /**
+     * Find an order by ID with its items fetched in the same query, locked until the end of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsForUpdateById(Long id);
+
+    /**
+     * Current version of an order, without loading it
+     */
+    @Query("SELECT o.version FROM Order o WHERE o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Find orders by IDs with their items fetched in the same query
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
 
     /**
      * Find an order by its order number
      */
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    /**
+     * Find an order by its order number with its items fetched in the same query
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsByOrderNumber(String orderNumber);
+
     /**
      * Find orders by user ID with pagination
      */
@@ -39,4 +91,32 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * Check if an order exists by order number
      */
     boolean existsByOrderNumber(String orderNumber);
+
+    /**
+     * List order summaries with pagination (scalar columns only, no managed entities)
+     */
+    @Query(value = SUMMARY_SELECT,
+            countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * List order summaries by user ID, one page of them (no count: totals come from the user order counters)
+     */
+    @Query(SUMMARY_SELECT + " WHERE o.userId = :userId")
+    List<OrderSummary> findSummariesByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    /**
+     * List order summaries by status with pagination
+     */
+    @Query(value = SUMMARY_SELECT + " WHERE o.status = :status",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.status = :status")
+    Page<OrderSummary> findSummariesByStatus(@Param("status") String status, Pageable pageable);
+
+    /**
+     * List order summaries by user ID and status, one page of them (no count: totals come from the user order counters)
+     */
+    @Query(SUMMARY_SELECT + " WHERE o.userId = :userId AND o.status = :status")
+    List<OrderSummary> findSummariesByUserIdAndStatus(@Param("userId") Integer userId,
+                                                      @Param("status") String status,
+                                                      Pageable pageable);
 }
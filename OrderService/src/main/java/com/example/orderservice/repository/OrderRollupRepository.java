@@ -0,0 +1,33 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for OrderRollup entity.
+ * Reads are primary key range scans; rows are written by OrderRollupRecorder and OrderRollupService.
+ */
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, OrderRollup.Key> {
+
+    /**
+     * Rollup rows (every stripe) of one dimension value for a range of days (inclusive)
+     */
+    List<OrderRollup> findByDimensionAndDimensionValueAndBucketDateBetweenOrderByBucketDateAsc(
+            OrderRollup.Dimension dimension, String dimensionValue, LocalDate from, LocalDate to);
+
+    /**
+     * Rollup rows (every stripe) of every value of a dimension for a range of days (inclusive)
+     */
+    List<OrderRollup> findByDimensionAndBucketDateBetweenOrderByBucketDateAscDimensionValueAsc(
+            OrderRollup.Dimension dimension, LocalDate from, LocalDate to);
+
+    /**
+     * Rollup rows (every stripe) of all dimensions for a range of days (inclusive)
+     */
+    List<OrderRollup> findByBucketDateBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,35 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.UserOrderCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for UserOrderCounter entity.
+ * Reads are primary key range scans over one user's rows; rows are written by UserOrderCounterRecorder
+ * and UserOrderCounterService.
+ */
+@Repository
+public interface UserOrderCounterRepository extends JpaRepository<UserOrderCounter, UserOrderCounter.Key> {
+
+    /**
+     * Every counter row (all statuses and stripes) of a user
+     */
+    List<UserOrderCounter> findByUserId(Integer userId);
+
+    /**
+     * Number of orders of a user (not archived)
+     */
+    @Query("SELECT COALESCE(SUM(c.orderCount), 0) FROM UserOrderCounter c WHERE c.userId = :userId")
+    long countOrdersByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Number of orders of a user in a status (not archived)
+     */
+    @Query("SELECT COALESCE(SUM(c.orderCount), 0) FROM UserOrderCounter c WHERE c.userId = :userId AND c.status = :status")
+    long countOrdersByUserIdAndStatus(@Param("userId") Integer userId, @Param("status") String status);
+}
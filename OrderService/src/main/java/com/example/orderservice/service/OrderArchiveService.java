@@ -0,0 +1,146 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.OrderChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves old orders, with their items, from orders and order_items to orders_archive and order_items_archive,
+ * so the hot tables and their indexes only hold recent orders. Only orders in a final status are archived.
+ * <p>
+ * Orders are moved in chunks of orders.archive.chunk-size, one transaction each: the chunk's orders are locked,
+ * copied with INSERT ... SELECT, then deleted with a single DELETE (see OrderDeleter). Archived orders keep
+ * counting in the rollups, which are recomputed from both tables, and in the per-user counters, as archived
+ * orders; no event is published for them, but they show in the change feed as ARCHIVED, having left the listings.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final String SELECT_SQL = "SELECT id FROM orders WHERE status IN (%s) AND created_at < ? AND id > ? "
+            + "ORDER BY id LIMIT ? FOR UPDATE";
+
+    private static final String ARCHIVE_ITEMS_SQL = "INSERT INTO order_items_archive "
+            + "(id, order_id, product_id, quantity, unit_price, total_line, created_at, archived_at) "
+            + "SELECT id, order_id, product_id, quantity, unit_price, total_line, created_at, ? "
+            + "FROM order_items WHERE order_id IN (%s)";
+
+    private static final String ARCHIVE_ORDERS_SQL = "INSERT INTO orders_archive "
+            + "(id, order_number, user_id, shipping_address, billing_address, total_amount, status, created_at, updated_at, version, archived_at) "
+            + "SELECT id, order_number, user_id, shipping_address, billing_address, total_amount, status, created_at, updated_at, version, ? "
+            + "FROM orders WHERE id IN (%s)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderDeleter orderDeleter;
+
+    @Autowired
+    private UserOrderCounterRecorder userOrderCounterRecorder;
+
+    @Autowired
+    private OrderChangeLog orderChangeLog;
+
+    @Value("${orders.archive.min-age-days:365}")
+    private int minAgeDays;
+
+    @Value("${orders.archive.statuses:DELIVERED,CANCELLED}")
+    private List<String> statuses;
+
+    @Value("${orders.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${orders.archive.pause-ms:100}")
+    private long pauseMs;
+
+    /**
+     * Scheduled archival of the orders older than orders.archive.min-age-days (disabled unless a cron is set)
+     */
+    @Scheduled(cron = "${orders.archive.cron:-}", scheduler = "maintenanceScheduler")
+    public void archiveOldOrders() {
+        archiveCreatedBefore(LocalDateTime.now().minusDays(minAgeDays));
+    }
+
+    /**
+     * Archive the orders in a final status created before the cutoff
+     *
+     * @return The number of orders archived
+     */
+    public long archiveCreatedBefore(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        String placeholders = String.join(", ", Collections.nCopies(statuses.size(), "?"));
+        String selectSql = String.format(SELECT_SQL, placeholders);
+        long archived = 0;
+        long afterId = Long.MIN_VALUE;
+
+        while (true) {
+            List<Object> args = new ArrayList<>(statuses);
+            args.add(Timestamp.valueOf(cutoff));
+            args.add(afterId);
+            args.add(chunkSize);
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = jdbcTemplate.queryForList(selectSql, Long.class, args.toArray());
+                archive(chunk);
+                return chunk;
+            });
+            archived += ids.size();
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            pause();
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} orders created before {} in {} ms", archived, cutoff, System.currentTimeMillis() - start);
+        }
+        return archived;
+    }
+
+    private void archive(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(orderIds.size(), "?"));
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(orderIds);
+        jdbcTemplate.update(String.format(ARCHIVE_ITEMS_SQL, placeholders), args.toArray());
+        jdbcTemplate.update(String.format(ARCHIVE_ORDERS_SQL, placeholders), args.toArray());
+        userOrderCounterRecorder.ordersArchived(orderIds);
+        orderChangeLog.ordersChanged(orderIds, OrderChange.Type.ARCHIVED);
+        orderDeleter.delete(orderIds);
+    }
+
+    /**
+     * Leave room for other writers (and replicas) between chunks
+     */
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order archival interrupted", e);
+        }
+    }
+}
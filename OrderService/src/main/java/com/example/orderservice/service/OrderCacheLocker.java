@@ -0,0 +1,107 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.cache.spi.access.CachedDomainDataAccess;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Soft-locks the second-level cache entries of orders written with plain SQL, which Hibernate does not see.
+ * The entries stay locked until the transaction completes, the same way Hibernate locks an entity it updates
+ * itself: readers miss the cache meanwhile, and a value they loaded before the commit cannot be cached afterwards.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderCacheLocker {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Lock the cached order until the end of the current transaction
+     */
+    public void lock(Long orderId) {
+        lockAll(List.of(orderId));
+    }
+
+    /**
+     * Lock the cached orders until the end of the current transaction
+     */
+    public void lockAll(Collection<Long> orderIds) {
+        lock(orderIds, List.of(), false);
+    }
+
+    /**
+     * Lock the cached orders, their item collections and the given items until the end of the current
+     * transaction, e.g. before deleting the orders and (by cascade) their items
+     */
+    public void lockWithItems(Collection<Long> orderIds, Collection<Long> itemIds) {
+        lock(orderIds, itemIds, true);
+    }
+
+    private void lock(Collection<Long> orderIds, Collection<Long> itemIds, boolean withItems) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        List<Runnable> unlocks = new ArrayList<>();
+
+        EntityPersister orders = factory.getMappingMetamodel().getEntityDescriptor(Order.class);
+        lockEntities(session, orders, orderIds, unlocks);
+        if (withItems) {
+            EntityPersister items = factory.getMappingMetamodel().getEntityDescriptor(OrderItem.class);
+            lockEntities(session, items, itemIds, unlocks);
+            CollectionPersister orderItems = factory.getMappingMetamodel()
+                    .getCollectionDescriptor(Order.class.getName() + ".orderItems");
+            CollectionDataAccess cacheAccess = orderItems.getCacheAccessStrategy();
+            if (cacheAccess != null) {
+                for (Long orderId : orderIds) {
+                    lockKey(session, cacheAccess,
+                            cacheAccess.generateCacheKey(orderId, orderItems, factory, session.getTenantIdentifier()), unlocks);
+                }
+            }
+        }
+
+        if (!unlocks.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unlocks.forEach(Runnable::run);
+                }
+            });
+        }
+    }
+
+    private static void lockEntities(SessionImplementor session, EntityPersister persister, Collection<Long> ids,
+                                     List<Runnable> unlocks) {
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        if (cacheAccess == null) {
+            return;
+        }
+        for (Long id : ids) {
+            lockKey(session, cacheAccess,
+                    cacheAccess.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier()), unlocks);
+        }
+    }
+
+    private static void lockKey(SessionImplementor session, CachedDomainDataAccess cacheAccess, Object key,
+                                List<Runnable> unlocks) {
+        SoftLock lock = cacheAccess.lockItem(session, key, null);
+        unlocks.add(() -> cacheAccess.unlockItem(session, key, lock));
+    }
+}
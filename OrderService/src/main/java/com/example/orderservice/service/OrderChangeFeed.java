@@ -0,0 +1,379 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderChangeDTO;
+import com.example.orderservice.entity.OrderChangeSequence;
+import com.example.orderservice.util.ApiError;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Serves the order change feed (GET /api/orders/changes) from the order_changes table.
+ * <p>
+ * A cursor is the sequence number of the last change a client has seen, and every read is a keyset query after it.
+ * Waiting connections hold no thread and no buffered changes: a long-poll is a pending callback with its cursor,
+ * an SSE subscriber an emitter with its cursor. When OrderChangeSequencer moves the head, pending long-polls are
+ * answered on the change feed executor with one query per distinct cursor, and each subscriber behind the head
+ * gets one delivery task on the SSE executor, which reads the next page after its cursor and writes it. Writes
+ * block while the client's socket is full, so a slow subscriber holds an SSE thread, never a long-poll's; one
+ * whose write has been blocked for orders.changes.write-timeout-ms is dropped, and its stream is closed once
+ * the write returns (the container's socket timeout bounds that). A subscriber that keeps up but lags only
+ * falls behind in the table, never in memory; once its cursor drops below the retention it is told so and closed.
+ */
+@Service
+public class OrderChangeFeed implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderChangeFeed.class);
+
+    private static final String READ_SQL = "SELECT seq, order_id, change_type, created_at FROM order_changes "
+            + "WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    private static final String STATE_SQL = "SELECT last_seq, purged_seq FROM order_change_sequence WHERE id = "
+            + OrderChangeSequence.ID;
+
+    private static final RowMapper<OrderChangeDTO> CHANGE_ROW = (rs, rowNum) -> new OrderChangeDTO(
+            rs.getLong("seq"),
+            rs.getLong("order_id"),
+            rs.getString("change_type"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("changeFeedExecutor")
+    private Executor changeFeedExecutor;
+
+    @Autowired
+    @Qualifier("changeFeedSseExecutor")
+    private Executor changeFeedSseExecutor;
+
+    @Value("${orders.changes.sse-page-size:100}")
+    private int ssePageSize;
+
+    @Value("${orders.changes.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${orders.changes.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${orders.changes.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile long head = -1;
+    private volatile long purged;
+
+    /**
+     * Changes read after a cursor. Expired when changes after the cursor were removed by retention:
+     * the client has missed them and must start over from the current head.
+     */
+    public record Page(List<OrderChangeDTO> changes, boolean expired) {
+    }
+
+    /**
+     * A pending long-poll
+     */
+    public static final class Waiter {
+        private final long cursor;
+        private final int limit;
+        private final Consumer<Page> onChanges;
+
+        private Waiter(long cursor, int limit, Consumer<Page> onChanges) {
+            this.cursor = cursor;
+            this.limit = limit;
+            this.onChanges = onChanges;
+        }
+    }
+
+    /**
+     * An SSE connection: its emitter, the last change written to it, whether a delivery is queued,
+     * when the write in progress started (0 when none), and whether it was dropped for a stalled write
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile long lastWriteAt;
+        private volatile long writeStartedAt;
+        private volatile boolean dropped;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    /**
+     * Sequence number of the latest change visible to readers (0 while the feed is empty)
+     */
+    public long head() {
+        if (head < 0) {
+            loadState();
+        }
+        return head;
+    }
+
+    /**
+     * Whether changes after the cursor are known to have been removed by retention
+     */
+    public boolean isExpired(long cursor) {
+        head();
+        return cursor < purged;
+    }
+
+    /**
+     * Read up to limit changes after the cursor, in sequence order
+     */
+    public Page read(long cursor, int limit) {
+        head();
+        List<OrderChangeDTO> changes = jdbcTemplate.query(READ_SQL, CHANGE_ROW, cursor, limit);
+        // Sequence numbers have no gaps, so a missing successor has been purged
+        boolean expired = cursor < purged || (!changes.isEmpty() && changes.get(0).seq() != cursor + 1);
+        return new Page(expired ? List.of() : changes, expired);
+    }
+
+    /**
+     * Wait for changes after the cursor: onChanges is called once, from the change feed executor, with the first
+     * page as soon as there is one. The caller cancels the wait when it gives up.
+     *
+     * @return The pending wait, or null when the feed already has orders.changes.max-connections connections
+     */
+    public Waiter await(long cursor, int limit, Consumer<Page> onChanges) {
+        if (connections() >= maxConnections) {
+            return null;
+        }
+        Waiter waiter = new Waiter(cursor, limit, onChanges);
+        waiters.add(waiter);
+        // The head may have moved between the caller's read and the registration
+        if (head() > cursor && waiters.remove(waiter)) {
+            answer(cursor, List.of(waiter));
+        }
+        return waiter;
+    }
+
+    /**
+     * Drop a pending wait (answered, timed out or disconnected)
+     */
+    public void cancel(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    /**
+     * Stream the changes after the cursor to the emitter, then every later change as it is sequenced,
+     * with a comment line every orders.changes.heartbeat-ms while there is none
+     *
+     * @return false when the feed already has orders.changes.max-connections connections
+     */
+    public boolean subscribe(long cursor, SseEmitter emitter) {
+        if (connections() >= maxConnections) {
+            return false;
+        }
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Writes the backlog, or a first heartbeat so the client sees the stream open
+        schedule(subscriber);
+        return true;
+    }
+
+    /**
+     * Re-read the head and the retention mark, then serve the waiters and subscribers behind the head
+     * and the subscribers due a heartbeat, and drop the subscribers whose write has stalled.
+     * Called by OrderChangeSequencer after each pass.
+     */
+    public void refresh() {
+        loadState();
+        long current = head;
+
+        Map<Long, List<Waiter>> behind = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.cursor < current && waiters.remove(waiter)) {
+                behind.computeIfAbsent(waiter.cursor, cursor -> new ArrayList<>()).add(waiter);
+            }
+        }
+        behind.forEach(this::answer);
+
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long writeStartedAt = subscriber.writeStartedAt;
+            if (writeStartedAt > 0 && now - writeStartedAt >= writeTimeoutMs) {
+                drop(subscriber);
+            } else if (subscriber.cursor < current || now - subscriber.lastWriteAt >= heartbeatMs) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Stop serving a subscriber whose write has stalled. The emitter is left alone: the blocked write holds it,
+     * and the delivery closes it once the write returns.
+     */
+    private void drop(Subscriber subscriber) {
+        subscriber.dropped = true;
+        if (subscribers.remove(subscriber)) {
+            logger.warn("Dropped an order change subscriber at {}: its write has been blocked for over {} ms",
+                    subscriber.cursor, writeTimeoutMs);
+        }
+    }
+
+    private void loadState() {
+        List<long[]> state = jdbcTemplate.query(STATE_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong("last_seq"), rs.getLong("purged_seq")});
+        if (state.isEmpty()) {
+            head = Math.max(head, 0);
+            return;
+        }
+        purged = state.get(0)[1];
+        head = Math.max(head, state.get(0)[0]);
+    }
+
+    private int connections() {
+        return waiters.size() + subscribers.size();
+    }
+
+    /**
+     * Answer waiters on the same cursor with a single read, sized for the largest of their limits
+     */
+    private void answer(long cursor, List<Waiter> group) {
+        try {
+            changeFeedExecutor.execute(() -> {
+                try {
+                    int limit = group.stream().mapToInt(waiter -> waiter.limit).max().orElse(1);
+                    Page page = read(cursor, limit);
+                    for (Waiter waiter : group) {
+                        List<OrderChangeDTO> changes = page.changes();
+                        waiter.onChanges.accept(new Page(changes.subList(0, Math.min(waiter.limit, changes.size())),
+                                page.expired()));
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Could not read order changes after {}: {}", cursor, e.getMessage());
+                    waiters.addAll(group);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Retried on the next refresh
+            waiters.addAll(group);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            changeFeedSseExecutor.execute(() -> deliver(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.scheduled.set(false);
+        }
+    }
+
+    /**
+     * Write the next page after the subscriber's cursor as one SSE event per change (id = seq, so a client
+     * reconnecting with Last-Event-ID resumes where it stopped), or a heartbeat when there is nothing to send
+     */
+    private void deliver(Subscriber subscriber) {
+        try {
+            Page page = read(subscriber.cursor, ssePageSize);
+            if (page.expired()) {
+                send(subscriber, SseEmitter.event().name("expired").data(expiredError(subscriber.cursor)).build());
+                subscriber.emitter.complete();
+                subscribers.remove(subscriber);
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (!page.changes().isEmpty()) {
+                Set<ResponseBodyEmitter.DataWithMediaType> events = new LinkedHashSet<>();
+                for (OrderChangeDTO change : page.changes()) {
+                    events.addAll(SseEmitter.event().id(Long.toString(change.seq())).name("change").data(change).build());
+                }
+                // One write and flush for the whole page
+                send(subscriber, events);
+                subscriber.cursor = page.changes().get(page.changes().size() - 1).seq();
+                subscriber.lastWriteAt = now;
+            } else if (now - subscriber.lastWriteAt >= heartbeatMs) {
+                send(subscriber, SseEmitter.event().comment("heartbeat").build());
+                subscriber.lastWriteAt = now;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Disconnected or already completed: the emitter callbacks finish the cleanup
+            subscribers.remove(subscriber);
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Could not deliver order changes after {}: {}", subscriber.cursor, e.getMessage());
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (subscriber.dropped) {
+            // The write got through after all, but the subscriber is no longer served: the client reconnects
+            subscriber.emitter.complete();
+        } else if (subscriber.cursor < head) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Write events to a subscriber with a single flush, exposing the start of the write to refresh
+     */
+    private void send(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> events) throws IOException {
+        subscriber.writeStartedAt = System.currentTimeMillis();
+        try {
+            subscriber.emitter.send(events);
+        } finally {
+            subscriber.writeStartedAt = 0;
+        }
+    }
+
+    /**
+     * Error sent to a client whose cursor has expired
+     */
+    public ApiError expiredError(long cursor) {
+        Map<String, Object> details = new HashMap<>();
+        details.put("cursor", Long.toString(cursor));
+        details.put("head", Long.toString(head()));
+        return new ApiError("CURSOR_EXPIRED", "Changes after cursor " + cursor
+                + " are no longer retained, restart from the head", details);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orders.changes.connections", waiters, Set::size)
+                .tag("mode", "long-poll")
+                .description("Long-polls waiting on the order change feed")
+                .register(registry);
+        Gauge.builder("orders.changes.connections", subscribers, Set::size)
+                .tag("mode", "sse")
+                .description("SSE subscribers of the order change feed")
+                .register(registry);
+        Gauge.builder("orders.changes.head", this, feed -> feed.head)
+                .description("Sequence number of the latest order change")
+                .register(registry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.OrderChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records order changes for the change feed, inside the caller's transaction: one INSERT (or one JDBC batch)
+ * per change, without a sequence number. OrderChangeSequencer numbers the rows once they are committed.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderChangeLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_changes (order_id, change_type, created_at) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record a change to an order
+     */
+    public void orderChanged(Long orderId, OrderChange.Type type) {
+        jdbcTemplate.update(INSERT_SQL, orderId, type.name(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Record the same change to many orders with a single JDBC batch
+     */
+    public void ordersChanged(Collection<Long> orderIds, OrderChange.Type type) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = List.copyOf(orderIds);
+        jdbcTemplate.batchUpdate(INSERT_SQL, ids, ids.size(), (statement, orderId) -> {
+            statement.setLong(1, orderId);
+            statement.setString(2, type.name());
+            statement.setTimestamp(3, now);
+        });
+    }
+}
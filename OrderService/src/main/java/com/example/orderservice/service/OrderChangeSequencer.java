@@ -0,0 +1,168 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.OrderChangeSequence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Numbers committed order changes for the change feed, then lets OrderChangeFeed serve them.
+ * <p>
+ * Each pass locks the order_change_sequence row, reads the unnumbered changes in id order and gives them the next
+ * sequence numbers with one JDBC batch. Only committed rows are visible to it, and the row lock serialises
+ * instances, so sequence numbers are gapless and become visible in increasing order: a client that has read up
+ * to seq n finds every later change after n. Runs every orders.changes.poll-interval-ms, which bounds the delay
+ * before a change shows in the feed.
+ * <p>
+ * Changes older than orders.changes.retention-hours are deleted on orders.changes.purge-cron; cursors before them
+ * have expired.
+ */
+@Service
+public class OrderChangeSequencer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderChangeSequencer.class);
+
+    private static final String PENDING_SQL = "SELECT id FROM order_changes WHERE seq IS NULL ORDER BY id LIMIT ?";
+
+    private static final String LOCK_SQL = "SELECT last_seq FROM order_change_sequence WHERE id = "
+            + OrderChangeSequence.ID + " FOR UPDATE";
+
+    private static final String SEED_SQL = "INSERT IGNORE INTO order_change_sequence (id, last_seq, purged_seq) VALUES ("
+            + OrderChangeSequence.ID + ", 0, 0)";
+
+    private static final String NUMBER_SQL = "UPDATE order_changes SET seq = ? WHERE id = ?";
+
+    private static final String ADVANCE_SQL = "UPDATE order_change_sequence SET last_seq = ? WHERE id = "
+            + OrderChangeSequence.ID;
+
+    private static final String PURGE_BOUND_SQL = "SELECT MAX(seq) FROM order_changes WHERE seq IS NOT NULL AND created_at < ?";
+
+    private static final String PURGE_MARK_SQL = "UPDATE order_change_sequence SET purged_seq = ? WHERE id = "
+            + OrderChangeSequence.ID + " AND purged_seq < ?";
+
+    private static final String PURGE_SQL = "DELETE FROM order_changes WHERE seq <= ? LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderChangeFeed orderChangeFeed;
+
+    @Value("${orders.changes.sequencer.enabled:true}")
+    private boolean sequencerEnabled;
+
+    @Value("${orders.changes.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${orders.changes.retention-hours:72}")
+    private long retentionHours;
+
+    /**
+     * Scheduled pass (disabled with orders.changes.sequencer.enabled=false)
+     */
+    @Scheduled(fixedDelayString = "${orders.changes.poll-interval-ms:100}")
+    public void poll() {
+        if (!sequencerEnabled) {
+            return;
+        }
+        try {
+            advance();
+        } catch (RuntimeException e) {
+            logger.error("Order change sequencer failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Number the pending changes, then refresh the feed so waiting clients get them
+     */
+    public void advance() {
+        sequencePending();
+        orderChangeFeed.refresh();
+    }
+
+    /**
+     * Number committed changes until none is left
+     *
+     * @return The number of changes numbered
+     */
+    public int sequencePending() {
+        // Checked without a transaction or lock, the usual case being that there is nothing to do
+        if (jdbcTemplate.queryForList(PENDING_SQL, Long.class, 1).isEmpty()) {
+            return 0;
+        }
+        int sequenced = 0;
+        while (true) {
+            int numbered = transactionTemplate.execute(status -> numberBatch());
+            sequenced += numbered;
+            if (numbered < batchSize) {
+                return sequenced;
+            }
+        }
+    }
+
+    private int numberBatch() {
+        List<Long> last = jdbcTemplate.queryForList(LOCK_SQL, Long.class);
+        if (last.isEmpty()) {
+            jdbcTemplate.update(SEED_SQL);
+            last = jdbcTemplate.queryForList(LOCK_SQL, Long.class);
+        }
+        // Read after taking the lock, so rows numbered by another instance meanwhile are excluded
+        List<Long> ids = jdbcTemplate.queryForList(PENDING_SQL, Long.class, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        long first = last.get(0) + 1;
+        List<Object[]> numbers = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            numbers.add(new Object[]{first + i, ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate(NUMBER_SQL, numbers);
+        jdbcTemplate.update(ADVANCE_SQL, first + ids.size() - 1);
+        return ids.size();
+    }
+
+    /**
+     * Scheduled retention of the change feed (disabled unless a cron is set)
+     */
+    @Scheduled(cron = "${orders.changes.purge-cron:-}", scheduler = "maintenanceScheduler")
+    public void purgeExpired() {
+        purgeBefore(LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    /**
+     * Delete the sequenced changes recorded before the cutoff, in chunks of orders.changes.batch-size
+     *
+     * @return The number of changes deleted
+     */
+    public long purgeBefore(LocalDateTime cutoff) {
+        Long bound = jdbcTemplate.queryForObject(PURGE_BOUND_SQL, Long.class, Timestamp.valueOf(cutoff));
+        if (bound == null) {
+            return 0;
+        }
+        // Marked first: readers of this instance see their cursor expire rather than skip the deleted changes
+        jdbcTemplate.update(PURGE_MARK_SQL, bound, bound);
+        orderChangeFeed.refresh();
+
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = jdbcTemplate.update(PURGE_SQL, bound, batchSize);
+            deleted += chunk;
+        } while (chunk == batchSize);
+        logger.info("Purged {} order changes up to seq {}", deleted, bound);
+        return deleted;
+    }
+}
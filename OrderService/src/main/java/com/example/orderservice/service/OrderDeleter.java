@@ -0,0 +1,48 @@
+package com.example.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deletes orders with one DELETE ... WHERE id IN (...), leaving their items to fk_order_items_order
+ * ON DELETE CASCADE instead of loading every item and deleting it row by row as the JPA cascade does.
+ * Only the item IDs are read, to soft-lock their second-level cache entries (OrderCacheLocker).
+ * Callers lock the orders first and record what the deletion means (outbox events, rollups).
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderDeleter {
+
+    private static final String ITEM_IDS_SQL = "SELECT id FROM order_items WHERE order_id IN (%s)";
+
+    private static final String DELETE_SQL = "DELETE FROM orders WHERE id IN (%s)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderCacheLocker orderCacheLocker;
+
+    /**
+     * Delete the orders and their items
+     *
+     * @return The number of orders deleted
+     */
+    public int delete(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(orderIds.size(), "?"));
+        Object[] args = orderIds.toArray();
+        List<Long> itemIds = jdbcTemplate.queryForList(String.format(ITEM_IDS_SQL, placeholders), Long.class, args);
+        orderCacheLocker.lockWithItems(orderIds, itemIds);
+        return jdbcTemplate.update(String.format(DELETE_SQL, placeholders), args);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderEventDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderOutboxEvent;
+import com.example.orderservice.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records order events in the outbox table, inside the caller's transaction.
+ * The events are only published later by OrderOutboxRelay, so the request path pays one INSERT
+ * and never waits on the broker.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderEventOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_outbox (order_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Record the creation of an order
+     */
+    public void orderCreated(Order order) {
+        save(order, OrderOutboxEvent.Type.ORDER_CREATED, null);
+    }
+
+    /**
+     * Record the creation of orders persisted together, with a single JDBC batch.
+     * The orders must already be flushed so their ids are assigned.
+     */
+    public void ordersCreated(List<Order> orders) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, orders, orders.size(), (statement, order) -> {
+            statement.setLong(1, order.getId());
+            statement.setString(2, OrderOutboxEvent.Type.ORDER_CREATED.name());
+            statement.setString(3, payload(order, OrderOutboxEvent.Type.ORDER_CREATED, null));
+            statement.setTimestamp(4, now);
+        });
+    }
+
+    /**
+     * Record a status change of an order
+     */
+    public void orderStatusChanged(Order order, String previousStatus) {
+        // Write the order row first: its lock orders this event after any concurrent change to the order
+        entityManager.flush();
+        save(order, OrderOutboxEvent.Type.ORDER_STATUS_CHANGED, previousStatus);
+    }
+
+    /**
+     * A status change of an order written with SQL; the order carries its new status
+     */
+    public record StatusChange(Order order, String previousStatus) {
+    }
+
+    /**
+     * Record status changes applied together with set-based SQL, with a single JDBC batch
+     */
+    public void ordersStatusChanged(List<StatusChange> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.order().getId());
+            statement.setString(2, OrderOutboxEvent.Type.ORDER_STATUS_CHANGED.name());
+            statement.setString(3, payload(change.order(), OrderOutboxEvent.Type.ORDER_STATUS_CHANGED, change.previousStatus()));
+            statement.setTimestamp(4, now);
+        });
+    }
+
+    /**
+     * Record the deletion of an order, after it has been removed
+     */
+    public void orderDeleted(Order order) {
+        entityManager.flush();
+        save(order, OrderOutboxEvent.Type.ORDER_DELETED, null);
+    }
+
+    private void save(Order order, OrderOutboxEvent.Type type, String previousStatus) {
+        orderOutboxRepository.save(new OrderOutboxEvent(order.getId(), type, payload(order, type, previousStatus)));
+    }
+
+    private String payload(Order order, OrderOutboxEvent.Type type, String previousStatus) {
+        OrderEventDTO event = new OrderEventDTO(type.name(), order.getId(), order.getOrderNumber(), order.getUserId(),
+                order.getStatus(), previousStatus, order.getTotalAmount(), LocalDateTime.now());
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event of order " + order.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.OrderOutboxEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes outbox events to the message broker.
+ * Implementations must not block: the returned future completes once the broker has
+ * acknowledged the event, or completes exceptionally if it could not be published.
+ */
+public interface OrderEventPublisher {
+
+    /**
+     * Publish one event
+     *
+     * @param event The outbox event, keyed by its order id
+     * @return A future completed when the event is acknowledged
+     */
+    CompletableFuture<Void> publish(OrderOutboxEvent event);
+}
@@ -2,16 +2,25 @@ package com.example.orderservice.service;
 
 import com.example.orderservice.dto.*;
 import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderChange;
 import com.example.orderservice.entity.OrderItem;
 import com.example.orderservice.repository.OrderItemRepository;
 import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OrderSpecifications;
+import com.example.orderservice.util.CursorPage;
+import com.example.orderservice.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 /**
@@ -21,19 +30,30 @@ import java.util.Optional;
 @Service
 public class OrderItemService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc(KeysetCursor.CREATED_AT), Sort.Order.desc(KeysetCursor.ID));
+
     @Autowired
     private OrderItemRepository orderItemRepository;
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderRollupRecorder orderRollupRecorder;
+
+    @Autowired
+    private OrderTotalAdjuster orderTotalAdjuster;
+
+    @Autowired
+    private OrderChangeLog orderChangeLog;
+
     /**
-     * Create a new order item
+     * Create a new order item, adding its line total to the order total
      */
     @Transactional
     public Optional<OrderItemDTO> createOrderItem(CreateOrderItemDTO createOrderItemDTO) {
-        // Verify that the order exists
-        Optional<Order> orderOpt = orderRepository.findById(createOrderItemDTO.getOrderId());
+        // Verify that the order exists, and lock it for the total update
+        Optional<Order> orderOpt = orderRepository.findForUpdateById(createOrderItemDTO.getOrderId());
         if (orderOpt.isEmpty()) {
             return Optional.empty();
         }
@@ -46,6 +66,9 @@ public class OrderItemService {
         orderItem.calculateTotalLine();
 
         OrderItem savedItem = orderItemRepository.save(orderItem);
+        orderTotalAdjuster.addToTotal(savedItem.getOrder().getId(), savedItem.getTotalLine());
+        orderRollupRecorder.itemChanged(savedItem.getOrder(), savedItem.getQuantity(), savedItem.getTotalLine());
+        orderChangeLog.orderChanged(savedItem.getOrder().getId(), OrderChange.Type.UPDATED);
         return Optional.of(convertToDTO(savedItem));
     }
 
@@ -65,6 +88,26 @@ public class OrderItemService {
         return items.map(this::convertToDTO);
     }
 
+    /**
+     * Get order items with keyset (cursor) pagination, newest first.
+     * Seeks on (created_at, id) and only runs the COUNT query when includeTotal is set.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<OrderItemDTO> getOrderItemsByCursor(String cursor, int limit, Long orderId, boolean includeTotal) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Specification<OrderItem> filter = Specification.where(OrderSpecifications.orderIdEquals(orderId));
+
+        Window<OrderItem> window = orderItemRepository.findBy(filter, query -> query
+                .sortBy(NEWEST_FIRST)
+                .limit(limit)
+                .scroll(position));
+        Long total = includeTotal ? orderItemRepository.count(filter) : null;
+
+        return KeysetCursor.toPage(window, position, OrderItem::getCreatedAt, OrderItem::getId,
+                this::convertToDTO, total);
+    }
+
     /**
      * Get order item by ID
      */
@@ -74,12 +117,15 @@ public class OrderItemService {
     }
 
     /**
-     * Update an order item
+     * Update an order item, applying the change of its line total to the order total
      */
     @Transactional
     public Optional<OrderItemDTO> updateOrderItem(Long id, UpdateOrderItemDTO updateOrderItemDTO) {
-        return orderItemRepository.findById(id)
+        return lockOrderOf(id)
+                .flatMap(order -> orderItemRepository.findForUpdateById(id))
                 .map(item -> {
+                    int previousQuantity = item.getQuantity();
+                    BigDecimal previousTotalLine = item.getTotalLine();
                     if (updateOrderItemDTO.getQuantity() != null) {
                         item.setQuantity(updateOrderItemDTO.getQuantity());
                     }
@@ -88,20 +134,29 @@ public class OrderItemService {
                     }
                     item.calculateTotalLine();
                     OrderItem updatedItem = orderItemRepository.save(item);
+                    BigDecimal totalDelta = updatedItem.getTotalLine().subtract(previousTotalLine);
+                    orderTotalAdjuster.addToTotal(updatedItem.getOrder().getId(), totalDelta);
+                    orderRollupRecorder.itemChanged(updatedItem.getOrder(), updatedItem.getQuantity() - previousQuantity, totalDelta);
+                    orderChangeLog.orderChanged(updatedItem.getOrder().getId(), OrderChange.Type.UPDATED);
                     return convertToDTO(updatedItem);
                 });
     }
 
     /**
-     * Delete an order item
+     * Delete an order item, subtracting its line total from the order total
      */
     @Transactional
     public boolean deleteOrderItem(Long id) {
-        if (orderItemRepository.existsById(id)) {
-            orderItemRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        return lockOrderOf(id)
+                .flatMap(order -> orderItemRepository.findForUpdateById(id))
+                .map(item -> {
+                    orderItemRepository.delete(item);
+                    orderTotalAdjuster.addToTotal(item.getOrder().getId(), item.getTotalLine().negate());
+                    orderRollupRecorder.itemChanged(item.getOrder(), -item.getQuantity(), item.getTotalLine().negate());
+                    orderChangeLog.orderChanged(item.getOrder().getId(), OrderChange.Type.UPDATED);
+                    return true;
+                })
+                .orElse(false);
     }
 
     /**
@@ -113,6 +168,14 @@ public class OrderItemService {
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Lock the order of an item, before the item itself (see OrderRepository.findForUpdateById)
+     */
+    private Optional<Order> lockOrderOf(Long itemId) {
+        return orderItemRepository.findOrderIdById(itemId)
+                .flatMap(orderRepository::findForUpdateById);
+    }
+
     /**
      * Convert OrderItem entity to DTO
      */
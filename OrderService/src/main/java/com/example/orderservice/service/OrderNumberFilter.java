@@ -0,0 +1,194 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.OrderChange;
+import com.example.orderservice.entity.OrderChangeSequence;
+import com.example.orderservice.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * In-memory Bloom filter of the known order numbers, so lookups of unknown numbers are answered without a query.
+ * <p>
+ * The filter exists from startup and every order number generated on this instance is added to it (see
+ * OrderService), even before the order commits: a rolled back order only costs a false positive. Once the
+ * application is ready, the existing numbers are added by a streaming scan of the orders table; until the scan
+ * completes every lookup goes to the database. Orders created on other instances are added from the change feed:
+ * every orders.number-filter.catch-up-ms, the numbers of the orders created since the last pass are read after
+ * its sequence number.
+ * <p>
+ * A filter miss is only trusted for numbers generated before the horizon: the time up to which every committed
+ * order is known to have been read, less orders.number-filter.commit-margin-ms for orders still committing.
+ * Later Snowflake numbers, whose generation time is part of the number, are looked up in the database; numbers of
+ * any other format predate the Snowflake generator and were loaded by the startup scan. Numbers of deleted or
+ * archived orders stay in the filter, only costing false positives. Size, fill and lookup outcomes are published
+ * as metrics.
+ */
+@Component
+public class OrderNumberFilter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberFilter.class);
+
+    private static final String LOOKUPS_METRIC = "orders.number.filter.lookups";
+
+    private static final String STATE_SQL = "SELECT last_seq, purged_seq FROM order_change_sequence WHERE id = "
+            + OrderChangeSequence.ID;
+
+    private static final String OLDEST_PENDING_SQL = "SELECT MIN(created_at) FROM order_changes WHERE seq IS NULL";
+
+    private static final String CREATED_SQL = "SELECT o.order_number FROM order_changes c JOIN orders o ON o.id = c.order_id "
+            + "WHERE c.seq > ? AND c.seq <= ? AND c.change_type = '" + OrderChange.Type.CREATED + "'";
+
+    private final BloomFilter filter;
+    private final JdbcTemplate scanTemplate;
+    private final double falsePositiveRate;
+    private final long commitMarginMs;
+    private volatile boolean ready;
+    private volatile long cursor;
+    private volatile long horizon;
+    private volatile MeterRegistry registry;
+
+    public OrderNumberFilter(DataSource dataSource,
+                             @Value("${orders.number-filter.expected-insertions:10000000}") long expectedInsertions,
+                             @Value("${orders.number-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${orders.number-filter.max-memory-mb:32}") long maxMemoryMb,
+                             @Value("${orders.number-filter.fetch-size:1000}") int fetchSize,
+                             @Value("${orders.number-filter.commit-margin-ms:60000}") long commitMarginMs) {
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate, maxMemoryMb * 8 * 1024 * 1024);
+        this.falsePositiveRate = falsePositiveRate;
+        this.commitMarginMs = commitMarginMs;
+        this.scanTemplate = new JdbcTemplate(dataSource);
+        this.scanTemplate.setFetchSize(fetchSize);
+        logger.info("Order number filter: {} KiB, {} hash functions, for {} numbers at a {} false-positive rate",
+                filter.bitSize() / 8 / 1024, filter.hashFunctions(), expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * Add the numbers of the existing orders, read with a forward-only cursor
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long start = System.currentTimeMillis();
+        // Read first: changes sequenced during the scan are read again by the next catch-up, never skipped
+        long last = changeState()[0];
+        long[] loaded = {0};
+        scanTemplate.query("SELECT order_number FROM orders", rs -> {
+            filter.put(rs.getString(1));
+            loaded[0]++;
+        });
+        cursor = last;
+        horizon = start - commitMarginMs;
+        ready = true;
+        logger.info("Loaded {} order numbers into the filter in {} ms, estimated false-positive rate {}",
+                loaded[0], System.currentTimeMillis() - start, filter.expectedFalsePositiveRate());
+    }
+
+    /**
+     * Add the numbers of the orders created (on any instance) since the last pass, from the change feed
+     */
+    @Scheduled(fixedDelayString = "${orders.number-filter.catch-up-ms:1000}")
+    public synchronized void catchUp() {
+        if (!ready) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            // Read before the head: a change sequenced in between is below the head, any later one is still pending
+            Timestamp oldestPending = scanTemplate.queryForObject(OLDEST_PENDING_SQL, Timestamp.class);
+            long[] state = changeState();
+            if (state[1] > cursor) {
+                logger.warn("Order changes after {} were purged before the order number filter read them, reloading",
+                        cursor);
+                load();
+                return;
+            }
+            scanTemplate.query(CREATED_SQL, rs -> {
+                filter.put(rs.getString(1));
+            }, cursor, state[0]);
+            cursor = state[0];
+            long complete = oldestPending == null ? start : Math.min(start, oldestPending.getTime());
+            horizon = Math.max(horizon, complete - commitMarginMs);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read new order numbers from the change feed: {}", e.getMessage());
+        }
+    }
+
+    private long[] changeState() {
+        List<long[]> state = scanTemplate.query(STATE_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong("last_seq"), rs.getLong("purged_seq")});
+        return state.isEmpty() ? new long[]{0, 0} : state.get(0);
+    }
+
+    /**
+     * Add the number of a new order
+     */
+    public void add(String orderNumber) {
+        filter.put(orderNumber);
+    }
+
+    /**
+     * Whether an order may have this number: false means no order has it (counted as a rejected lookup)
+     */
+    public boolean mightContain(String orderNumber) {
+        if (!ready || filter.mightContain(orderNumber)
+                || SnowflakeOrderNumberGenerator.generatedAt(orderNumber) >= horizon) {
+            return true;
+        }
+        count("rejected");
+        return false;
+    }
+
+    /**
+     * Count the outcome of a lookup the filter let through: found, or a false positive
+     */
+    public void recordLookup(boolean found) {
+        count(found ? "found" : "false_positive");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("orders.number.filter.memory", filter, f -> f.bitSize() / 8.0)
+                .description("Memory used by the order number filter")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("orders.number.filter.fill", filter, f -> (double) f.bitsSet() / f.bitSize())
+                .description("Share of the order number filter bits that are set")
+                .register(registry);
+        Gauge.builder("orders.number.filter.false.positive.rate", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("Estimated false-positive rate of the order number filter at its current fill")
+                .register(registry);
+        Gauge.builder("orders.number.filter.false.positive.rate.target", () -> falsePositiveRate)
+                .description("Configured false-positive rate of the order number filter")
+                .register(registry);
+    }
+
+    private void count(String result) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        Counter.builder(LOOKUPS_METRIC)
+                .description("Order lookups by number, by outcome")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
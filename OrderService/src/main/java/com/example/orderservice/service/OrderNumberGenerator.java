@@ -0,0 +1,16 @@
+package com.example.orderservice.service;
+
+/**
+ * Generates order numbers.
+ * Implementations must return values that are unique across all nodes and monotonic per node,
+ * and must be safe to call from many threads concurrently.
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * Generate the next order number
+     *
+     * @return A new, unique order number
+     */
+    String nextOrderNumber();
+}
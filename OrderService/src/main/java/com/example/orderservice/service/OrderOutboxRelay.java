@@ -0,0 +1,230 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.OrderOutboxEvent;
+import com.example.orderservice.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Background relay from the outbox table to the message broker.
+ * Every poll claims the oldest pending events in batches, publishes them and deletes the ones
+ * the broker acknowledged, until the outbox is drained or a publish fails.
+ * <p>
+ * No transaction is open while events are published. A batch is claimed in a short READ COMMITTED
+ * transaction, which locks the rows it returns but no gap, so order writes never wait for the broker:
+ * the claim stamps the rows with a lease (claimed_until, orders.outbox.lease-ms ahead), then commits.
+ * After publishing, a second short transaction deletes the acknowledged events and releases the others.
+ * A relay on another node skips leased events and the later events of their orders; the events of a relay
+ * that died become claimable again when their lease runs out.
+ * <p>
+ * Events of different orders are published concurrently; events of the same order are chained
+ * so each one is only sent once the previous one is acknowledged. When an event fails, the later
+ * events of its order stay in the outbox behind it and are retried, in order, on the next poll.
+ * Delivery is at-least-once: an event acknowledged after the publish timeout is sent again.
+ */
+@Component
+public class OrderOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    public static final String PUBLISHED_METRIC = "orders.outbox.published";
+    public static final String FAILED_METRIC = "orders.outbox.failed";
+    public static final String LAG_METRIC = "orders.outbox.lag";
+
+    // Unclaimed (or expired) events whose order has no earlier event leased by another relay
+    private static final String CLAIM_SQL = "SELECT o.id, o.order_id, o.event_type, o.payload, o.created_at "
+            + "FROM order_outbox o WHERE (o.claimed_until IS NULL OR o.claimed_until < ?) "
+            + "AND NOT EXISTS (SELECT 1 FROM order_outbox p WHERE p.order_id = o.order_id AND p.id < o.id "
+            + "AND p.claimed_until >= ?) "
+            + "ORDER BY o.id LIMIT ? FOR UPDATE";
+
+    private static final String LEASE_SQL = "UPDATE order_outbox SET claimed_until = ? WHERE id IN (%s)";
+
+    private static final String RELEASE_SQL = "UPDATE order_outbox SET claimed_until = NULL WHERE id IN (%s)";
+
+    private static final RowMapper<OrderOutboxEvent> EVENT_ROW = (rs, rowNum) -> {
+        OrderOutboxEvent event = new OrderOutboxEvent(rs.getLong("order_id"),
+                OrderOutboxEvent.Type.valueOf(rs.getString("event_type")), rs.getString("payload"));
+        event.setId(rs.getLong("id"));
+        event.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return event;
+    };
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${orders.outbox.relay.enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${orders.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${orders.outbox.publish-timeout-ms:10000}")
+    private long publishTimeoutMs;
+
+    @Value("${orders.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    private record BatchResult(int read, int published) {
+    }
+
+    /**
+     * Scheduled poll of the outbox
+     */
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval-ms:500}", scheduler = "outboxRelayScheduler")
+    public void poll() {
+        if (!relayEnabled) {
+            return;
+        }
+        try {
+            relayPending();
+        } catch (RuntimeException e) {
+            logger.error("Order outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publish pending events until the outbox is drained or a batch is not fully published
+     *
+     * @return The number of events published
+     */
+    public int relayPending() {
+        int published = 0;
+        while (true) {
+            BatchResult result = relayBatch();
+            published += result.published();
+            if (result.read() < batchSize || result.published() < result.read()) {
+                return published;
+            }
+        }
+    }
+
+    private BatchResult relayBatch() {
+        List<OrderOutboxEvent> events = claim();
+        if (events.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        Set<Long> publishedIds = ConcurrentHashMap.newKeySet();
+        Map<Long, CompletableFuture<Void>> chains = new HashMap<>();
+        for (OrderOutboxEvent event : events) {
+            CompletableFuture<Void> previous = chains.get(event.getOrderId());
+            chains.put(event.getOrderId(), previous == null
+                    ? publish(event, publishedIds)
+                    // Send from a pool thread, not from the broker client's callback thread
+                    : previous.thenComposeAsync(ignored -> publish(event, publishedIds)));
+        }
+
+        try {
+            CompletableFuture.allOf(chains.values().toArray(CompletableFuture[]::new))
+                    .get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            logger.warn("Could not publish {} of {} order events, will retry: {}",
+                    events.size() - publishedIds.size(), events.size(), e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            logger.warn("Timed out publishing order events, {} of {} acknowledged", publishedIds.size(), events.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Snapshot: late acknowledgements are not deleted and will be published again
+        List<Long> acknowledged = List.copyOf(publishedIds);
+        List<Long> unacknowledged = events.stream().map(OrderOutboxEvent::getId)
+                .filter(id -> !acknowledged.contains(id)).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!acknowledged.isEmpty()) {
+                orderOutboxRepository.deleteAllByIdInBatch(acknowledged);
+            }
+            if (!unacknowledged.isEmpty()) {
+                jdbcTemplate.update(String.format(RELEASE_SQL, placeholders(unacknowledged.size())),
+                        unacknowledged.toArray());
+            }
+        });
+        return new BatchResult(events.size(), acknowledged.size());
+    }
+
+    /**
+     * Lease the oldest claimable events to this relay, in a transaction that ends before they are published
+     */
+    private List<OrderOutboxEvent> claim() {
+        TransactionTemplate readCommitted = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readCommitted.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return readCommitted.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<OrderOutboxEvent> events = jdbcTemplate.query(CLAIM_SQL, EVENT_ROW, now, now, batchSize);
+            if (!events.isEmpty()) {
+                Object[] args = new Object[events.size() + 1];
+                args[0] = Timestamp.valueOf(LocalDateTime.now().plusNanos(leaseMs * 1_000_000));
+                for (int i = 0; i < events.size(); i++) {
+                    args[i + 1] = events.get(i).getId();
+                }
+                jdbcTemplate.update(String.format(LEASE_SQL, placeholders(events.size())), args);
+            }
+            return events;
+        });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private CompletableFuture<Void> publish(OrderOutboxEvent event, Set<Long> publishedIds) {
+        return orderEventPublisher.publish(event).whenComplete((ignored, error) -> {
+            if (error != null) {
+                Counter.builder(FAILED_METRIC)
+                        .description("Order events the broker did not acknowledge")
+                        .tag("type", event.getEventType().name())
+                        .register(meterRegistry)
+                        .increment();
+                return;
+            }
+            publishedIds.add(event.getId());
+            Counter.builder(PUBLISHED_METRIC)
+                    .description("Order events published from the outbox")
+                    .tag("type", event.getEventType().name())
+                    .register(meterRegistry)
+                    .increment();
+            Timer.builder(LAG_METRIC)
+                    .description("Time from the order change to the broker acknowledgement")
+                    .register(meterRegistry)
+                    .record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+        });
+    }
+}
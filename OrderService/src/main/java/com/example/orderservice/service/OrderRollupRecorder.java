@@ -0,0 +1,205 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderItem;
+import com.example.orderservice.entity.OrderRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies order changes to the order_rollups table as deltas, inside the caller's transaction.
+ * Each change adds to (or subtracts from) the ALL, STATUS and USER rows of the order's creation day
+ * with one batched upsert, so rollups stay consistent with the orders they describe without
+ * ever rescanning them. The same changes are then applied to the per-user counters
+ * (see UserOrderCounterRecorder).
+ * <p>
+ * Every row is split into orders.rollups.stripes stripes and an order always counts in the stripe of its ID,
+ * so concurrent writes of different orders rarely lock the same row, even on a busy day or for one hot user.
+ * Readers sum the stripes; the deltas are additive, so the stripe count can change at any time.
+ * Rows are upserted in key order, so concurrent transactions that do share rows lock them in the same
+ * order and cannot deadlock on each other.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderRollupRecorder {
+
+    private static final String UPSERT_SQL = "INSERT INTO order_rollups "
+            + "(dimension, dimension_value, bucket_date, stripe, order_count, revenue, item_units) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "revenue = revenue + VALUES(revenue), item_units = item_units + VALUES(item_units)";
+
+    private static final Comparator<OrderRollup.Key> KEY_ORDER = Comparator
+            .comparing(OrderRollup.Key::getDimension)
+            .thenComparing(OrderRollup.Key::getDimensionValue)
+            .thenComparing(OrderRollup.Key::getBucketDate)
+            .thenComparingInt(OrderRollup.Key::getStripe);
+
+    private static final String ITEM_UNITS_SQL = "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE order_id = ?";
+
+    /**
+     * What one order contributes to its rollup and counter rows
+     */
+    public record Contribution(Long orderId, LocalDateTime createdAt, String status, Integer userId,
+                               BigDecimal revenue, long itemUnits) {
+
+        private static Contribution of(Order order, long itemUnits) {
+            return new Contribution(order.getId(), createdAtOf(order), order.getStatus(), order.getUserId(),
+                    order.getTotalAmount(), itemUnits);
+        }
+
+        public LocalDate day() {
+            return createdAt.toLocalDate();
+        }
+    }
+
+    /**
+     * A contribution added (sign 1) or removed (sign -1); countDelta is 0 when only the amounts change
+     */
+    public record Change(Contribution contribution, int countDelta, int sign) {
+    }
+
+    private static final class Delta {
+        private long orderCount;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long itemUnits;
+
+        private boolean isZero() {
+            return orderCount == 0 && revenue.signum() == 0 && itemUnits == 0;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserOrderCounterRecorder userOrderCounterRecorder;
+
+    @Value("${orders.rollups.stripes:16}")
+    private int stripes;
+
+    /**
+     * Current contribution of an existing order, before it is changed or deleted.
+     * Item units are summed in the database rather than from the (possibly cached) items collection;
+     * the caller holds the order lock, so no item of the order changes meanwhile.
+     */
+    public Contribution contributionOf(Order order) {
+        Long itemUnits = jdbcTemplate.queryForObject(ITEM_UNITS_SQL, Long.class, order.getId());
+        return Contribution.of(order, itemUnits);
+    }
+
+    /**
+     * Current contribution of an existing order whose item units the caller has already read under the order lock
+     */
+    public Contribution contributionOf(Order order, long itemUnits) {
+        return Contribution.of(order, itemUnits);
+    }
+
+    /**
+     * Count a new order, with the items it was created with
+     */
+    public void orderCreated(Order order) {
+        ordersCreated(List.of(order));
+    }
+
+    /**
+     * Count orders created together, with a single batched upsert
+     */
+    public void ordersCreated(List<Order> orders) {
+        apply(orders.stream()
+                .map(order -> Contribution.of(order, order.getOrderItems().stream().mapToLong(OrderItem::getQuantity).sum()))
+                .map(contribution -> new Change(contribution, 1, 1))
+                .toList());
+    }
+
+    /**
+     * Move an order from its previous contribution to its current status and amount (its items are unchanged)
+     */
+    public void orderChanged(Contribution before, Order order) {
+        apply(List.of(new Change(before, -1, -1), new Change(Contribution.of(order, before.itemUnits()), 1, 1)));
+    }
+
+    /**
+     * Move orders from their previous contributions to a new status, with a single batched upsert
+     */
+    public void ordersStatusChanged(List<Contribution> before, String status) {
+        List<Change> changes = new ArrayList<>();
+        for (Contribution contribution : before) {
+            changes.add(new Change(contribution, -1, -1));
+            changes.add(new Change(new Contribution(contribution.orderId(), contribution.createdAt(), status,
+                    contribution.userId(), contribution.revenue(), contribution.itemUnits()), 1, 1));
+        }
+        apply(changes);
+    }
+
+    /**
+     * Remove a deleted order, given its contribution from before the deletion
+     */
+    public void orderDeleted(Contribution contribution) {
+        apply(List.of(new Change(contribution, -1, -1)));
+    }
+
+    /**
+     * Apply an item change of the order: units added or removed, and the resulting change of its total
+     */
+    public void itemChanged(Order order, long unitsDelta, BigDecimal totalDelta) {
+        Contribution change = new Contribution(order.getId(), createdAtOf(order), order.getStatus(), order.getUserId(),
+                totalDelta, unitsDelta);
+        apply(List.of(new Change(change, 0, 1)));
+    }
+
+    private static LocalDateTime createdAtOf(Order order) {
+        return order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+    }
+
+    private void add(Map<OrderRollup.Key, Delta> deltas, Contribution contribution, int countDelta, int sign) {
+        int stripe = (int) Math.floorMod(contribution.orderId(), (long) stripes);
+        List<OrderRollup.Key> keys = List.of(
+                new OrderRollup.Key(OrderRollup.Dimension.ALL, "", contribution.day(), stripe),
+                new OrderRollup.Key(OrderRollup.Dimension.STATUS, contribution.status(), contribution.day(), stripe),
+                new OrderRollup.Key(OrderRollup.Dimension.USER, String.valueOf(contribution.userId()), contribution.day(), stripe));
+        for (OrderRollup.Key key : keys) {
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.orderCount += countDelta;
+            delta.revenue = delta.revenue.add(contribution.revenue().multiply(BigDecimal.valueOf(sign)));
+            delta.itemUnits += sign * contribution.itemUnits();
+        }
+    }
+
+    private void apply(List<Change> changes) {
+        Map<OrderRollup.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        changes.forEach(change -> add(deltas, change.contribution(), change.countDelta(), change.sign()));
+        upsert(deltas);
+        userOrderCounterRecorder.apply(changes);
+    }
+
+    private void upsert(Map<OrderRollup.Key, Delta> deltas) {
+        List<Map.Entry<OrderRollup.Key, Delta>> changed = new ArrayList<>();
+        deltas.entrySet().stream().filter(entry -> !entry.getValue().isZero()).forEach(changed::add);
+        if (changed.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, changed, changed.size(), (statement, entry) -> {
+            statement.setString(1, entry.getKey().getDimension().name());
+            statement.setString(2, entry.getKey().getDimensionValue());
+            statement.setDate(3, Date.valueOf(entry.getKey().getBucketDate()));
+            statement.setInt(4, entry.getKey().getStripe());
+            statement.setLong(5, entry.getValue().orderCount);
+            statement.setBigDecimal(6, entry.getValue().revenue);
+            statement.setLong(7, entry.getValue().itemUnits);
+        });
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderRollupDTO;
+import com.example.orderservice.dto.RollupCheckDTO;
+import com.example.orderservice.entity.OrderRollup;
+import com.example.orderservice.repository.OrderRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads, rebuilds and verifies the daily order rollups maintained by OrderRollupRecorder.
+ * Reads are primary key range scans that sum the stripes of each requested bucket. The rebuild and the consistency
+ * check recompute the rollups from orders and order_items, and are meant for backfills and audits.
+ */
+@Service
+public class OrderRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRollupService.class);
+
+    /**
+     * One row per order, live or archived: its creation day, dimensions, amount and item units (%s filters both halves)
+     */
+    private static final String PER_ORDER_SQL = "SELECT CAST(o.created_at AS DATE) AS bucket_date, o.status, o.user_id, "
+            + "o.total_amount, (SELECT COALESCE(SUM(i.quantity), 0) FROM order_items i WHERE i.order_id = o.id) AS units "
+            + "FROM orders o %1$s "
+            + "UNION ALL SELECT CAST(o.created_at AS DATE) AS bucket_date, o.status, o.user_id, "
+            + "o.total_amount, (SELECT COALESCE(SUM(i.quantity), 0) FROM order_items_archive i WHERE i.order_id = o.id) AS units "
+            + "FROM orders_archive o %1$s";
+
+    private static final String DATE_FILTER = "WHERE o.created_at >= ? AND o.created_at < ?";
+
+    private static final String REBUILD_SQL = "INSERT INTO order_rollups "
+            + "(dimension, dimension_value, bucket_date, stripe, order_count, revenue, item_units) "
+            + "SELECT '%s', %s, t.bucket_date, 0, COUNT(*), SUM(t.total_amount), SUM(t.units) "
+            + "FROM (" + String.format(PER_ORDER_SQL, "") + ") t GROUP BY %s t.bucket_date";
+
+    private static final String RECOMPUTE_SQL = "SELECT t.bucket_date, t.status, t.user_id, "
+            + "COUNT(*) AS order_count, SUM(t.total_amount) AS revenue, SUM(t.units) AS item_units "
+            + "FROM (" + String.format(PER_ORDER_SQL, DATE_FILTER) + ") t "
+            + "GROUP BY t.bucket_date, t.status, t.user_id";
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.rollups.check-days:2}")
+    private int checkDays;
+
+    /**
+     * A rollup row without its stripe
+     */
+    private record Bucket(OrderRollup.Dimension dimension, String value, LocalDate day) {
+    }
+
+    /**
+     * Daily rollups of a dimension between two days (inclusive), by day.
+     * Without a value, returns every value of the dimension that had orders on each day.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderRollupDTO> getDailyRollups(OrderRollup.Dimension dimension, String value, LocalDate from, LocalDate to) {
+        List<OrderRollup> rollups;
+        if (dimension == OrderRollup.Dimension.ALL || value != null) {
+            rollups = orderRollupRepository.findByDimensionAndDimensionValueAndBucketDateBetweenOrderByBucketDateAsc(
+                    dimension, value == null ? "" : value, from, to);
+        } else {
+            rollups = orderRollupRepository.findByDimensionAndBucketDateBetweenOrderByBucketDateAscDimensionValueAsc(
+                    dimension, from, to);
+        }
+        // Buckets keep the order of the query: by day, then value
+        return new ArrayList<>(sumStripes(rollups).values());
+    }
+
+    /**
+     * Replace all rollups with a full recompute from the live and archived orders (backfill), written to stripe 0.
+     * Runs in one transaction; on MySQL the INSERT ... SELECT statements lock the rows they read,
+     * so order changes committed during the rebuild wait for it instead of being lost.
+     *
+     * @return The number of rollup rows written
+     */
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.update("DELETE FROM order_rollups");
+        int rows = jdbcTemplate.update(String.format(REBUILD_SQL, OrderRollup.Dimension.ALL, "''", ""))
+                + jdbcTemplate.update(String.format(REBUILD_SQL, OrderRollup.Dimension.STATUS, "t.status", "t.status,"))
+                + jdbcTemplate.update(String.format(REBUILD_SQL, OrderRollup.Dimension.USER, "CONCAT('', t.user_id)", "t.user_id,"));
+        logger.info("Rebuilt {} order rollup rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * Compare the stored rollups of a date range (inclusive) with a recompute from the live and archived orders
+     */
+    @Transactional(readOnly = true)
+    public RollupCheckDTO check(LocalDate from, LocalDate to) {
+        Map<Bucket, OrderRollupDTO> expected = new HashMap<>();
+        jdbcTemplate.query(RECOMPUTE_SQL, rs -> {
+            LocalDate day = rs.getDate("bucket_date").toLocalDate();
+            long orderCount = rs.getLong("order_count");
+            BigDecimal revenue = rs.getBigDecimal("revenue");
+            long itemUnits = rs.getLong("item_units");
+            addExpected(expected, OrderRollup.Dimension.ALL, "", day, orderCount, revenue, itemUnits);
+            addExpected(expected, OrderRollup.Dimension.STATUS, rs.getString("status"), day, orderCount, revenue, itemUnits);
+            addExpected(expected, OrderRollup.Dimension.USER, String.valueOf(rs.getInt("user_id")), day, orderCount, revenue, itemUnits);
+        }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()),
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+
+        Map<Bucket, OrderRollupDTO> actual = sumStripes(orderRollupRepository.findByBucketDateBetween(from, to));
+
+        Set<Bucket> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        List<RollupCheckDTO.Mismatch> mismatches = new ArrayList<>();
+        for (Bucket key : keys) {
+            OrderRollupDTO want = expected.getOrDefault(key, empty(key));
+            OrderRollupDTO have = actual.getOrDefault(key, empty(key));
+            if (want.orderCount() != have.orderCount() || want.revenue().compareTo(have.revenue()) != 0
+                    || want.itemUnits() != have.itemUnits()) {
+                mismatches.add(new RollupCheckDTO.Mismatch(want, have));
+            }
+        }
+        return new RollupCheckDTO(from, to, keys.size(), mismatches);
+    }
+
+    /**
+     * Scheduled consistency check of the last orders.rollups.check-days days (disabled unless a cron is set)
+     */
+    @Scheduled(cron = "${orders.rollups.check-cron:-}", scheduler = "maintenanceScheduler")
+    public void checkRecentRollups() {
+        LocalDate today = LocalDate.now();
+        RollupCheckDTO result = check(today.minusDays(checkDays - 1L), today);
+        if (!result.isConsistent()) {
+            logger.warn("{} of {} order rollup buckets from {} to {} differ from a recompute, e.g. expected {} but found {}",
+                    result.mismatches().size(), result.bucketsChecked(), result.from(), result.to(),
+                    result.mismatches().get(0).expected(), result.mismatches().get(0).actual());
+        }
+    }
+
+    private static void addExpected(Map<Bucket, OrderRollupDTO> expected, OrderRollup.Dimension dimension,
+                                    String value, LocalDate day, long orderCount, BigDecimal revenue, long itemUnits) {
+        expected.merge(new Bucket(dimension, value, day),
+                new OrderRollupDTO(day, dimension.name(), value, orderCount, revenue, itemUnits), OrderRollupService::sum);
+    }
+
+    private static Map<Bucket, OrderRollupDTO> sumStripes(List<OrderRollup> rollups) {
+        Map<Bucket, OrderRollupDTO> buckets = new LinkedHashMap<>();
+        for (OrderRollup rollup : rollups) {
+            buckets.merge(new Bucket(rollup.getDimension(), rollup.getDimensionValue(), rollup.getBucketDate()),
+                    toDTO(rollup), OrderRollupService::sum);
+        }
+        return buckets;
+    }
+
+    private static OrderRollupDTO sum(OrderRollupDTO a, OrderRollupDTO b) {
+        return new OrderRollupDTO(a.date(), a.dimension(), a.value(), a.orderCount() + b.orderCount(),
+                a.revenue().add(b.revenue()), a.itemUnits() + b.itemUnits());
+    }
+
+    private static OrderRollupDTO empty(Bucket key) {
+        return new OrderRollupDTO(key.day(), key.dimension().name(), key.value(), 0, BigDecimal.ZERO, 0);
+    }
+
+    private static OrderRollupDTO toDTO(OrderRollup rollup) {
+        return new OrderRollupDTO(rollup.getBucketDate(), rollup.getDimension().name(), rollup.getDimensionValue(),
+                rollup.getOrderCount(), rollup.getRevenue(), rollup.getItemUnits());
+    }
+}
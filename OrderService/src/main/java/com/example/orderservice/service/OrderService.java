@@ -4,23 +4,59 @@ import com.example.orderservice.client.UserServiceClient;
 import com.example.orderservice.client.CartServiceClient;
 import com.example.orderservice.dto.*;
 import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderChange;
 import com.example.orderservice.entity.OrderItem;
 import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OrderSpecifications;
+import com.example.orderservice.util.CursorPage;
+import com.example.orderservice.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.AvailableHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for Order business logic.
@@ -30,6 +66,10 @@ import java.util.stream.Collectors;
 @Service
 public class OrderService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc(KeysetCursor.CREATED_AT), Sort.Order.desc(KeysetCursor.ID));
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -39,16 +79,57 @@ public class OrderService {
     @Autowired
     private CartServiceClient cartServiceClient;
 
-    private static final DateTimeFormatter ORDER_NUMBER_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    @Autowired
+    @Qualifier("enrichmentExecutor")
+    private Executor enrichmentExecutor;
 
-    /**
-     * Generate a unique order number
-     */
-    private String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(ORDER_NUMBER_FORMATTER);
-        String randomSuffix = String.valueOf((int) (Math.random() * 10000));
-        return "ORD-" + timestamp + "-" + randomSuffix;
-    }
+    @Value("${enrichment.timeout-ms:2000}")
+    private long enrichmentTimeoutMs;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private OrderChangeLog orderChangeLog;
+
+    @Autowired
+    private OrderRollupRecorder orderRollupRecorder;
+
+    @Autowired
+    private OrderConditionalUpdater orderConditionalUpdater;
+
+    @Autowired
+    private OrderDeleter orderDeleter;
+
+    @Autowired
+    private UserOrderCounterService userOrderCounterService;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${orders.batch.chunk-size:100}")
+    private int batchChunkSize;
+
+    @Value("${orders.multi-get.chunk-size:500}")
+    private int multiGetChunkSize;
+
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    private OrderNumberFilter orderNumberFilter;
+
+    @Value("${orders.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${orders.export.clear-every:500}")
+    private int exportClearEvery;
 
     /**
      * Create a new order
@@ -62,8 +143,99 @@ public class OrderService {
             throw new IllegalArgumentException("User validation failed. Please ensure the user exists.");
         }
 
+        Order savedOrder = orderRepository.save(buildOrder(createOrderDTO));
+        orderEventOutbox.orderCreated(savedOrder);
+        orderRollupRecorder.orderCreated(savedOrder);
+        orderChangeLog.orderChanged(savedOrder.getId(), OrderChange.Type.CREATED);
+        return convertToDTO(savedOrder);
+    }
+
+    /**
+     * Create many orders at once.
+     * Each order is validated and its user verified individually, then valid orders are
+     * persisted in chunked transactions so Hibernate can group the INSERTs into JDBC batches.
+     * A chunk that fails to persist marks all of its orders as failed without affecting other chunks.
+     *
+     * @param createOrderDTOs The orders to create
+     * @return One result per submitted order, in request order
+     */
+    public List<BatchOrderResultDTO> createOrdersBatch(List<CreateOrderDTO> createOrderDTOs) {
+        List<BatchOrderResultDTO> results = new ArrayList<>(createOrderDTOs.size());
+        List<Integer> accepted = new ArrayList<>();
+        Map<Integer, Boolean> verifiedUsers = new HashMap<>();
+
+        for (int i = 0; i < createOrderDTOs.size(); i++) {
+            CreateOrderDTO createOrderDTO = createOrderDTOs.get(i);
+            String rejection = validateForBatch(createOrderDTO, verifiedUsers);
+            if (rejection != null) {
+                results.add(new BatchOrderResultDTO(i, BatchOrderResultDTO.REJECTED, null, rejection));
+            } else {
+                results.add(null);
+                accepted.add(i);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += batchChunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + batchChunkSize, accepted.size()));
+            try {
+                List<OrderDTO> created = transactionTemplate.execute(status -> {
+                    List<Order> orders = chunk.stream()
+                            .map(index -> buildOrder(createOrderDTOs.get(index)))
+                            .collect(Collectors.toList());
+                    orderRepository.saveAll(orders);
+                    entityManager.flush();
+                    orderEventOutbox.ordersCreated(orders);
+                    orderRollupRecorder.ordersCreated(orders);
+                    orderChangeLog.ordersChanged(orders.stream().map(Order::getId).toList(), OrderChange.Type.CREATED);
+                    List<OrderDTO> dtos = orders.stream().map(this::convertToDTO).collect(Collectors.toList());
+                    entityManager.clear();
+                    return dtos;
+                });
+                for (int j = 0; j < chunk.size(); j++) {
+                    int index = chunk.get(j);
+                    results.set(index, new BatchOrderResultDTO(index, BatchOrderResultDTO.CREATED, created.get(j), null));
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to persist batch chunk of {} orders: {}", chunk.size(), e.getMessage());
+                for (int index : chunk) {
+                    results.set(index, new BatchOrderResultDTO(index, BatchOrderResultDTO.FAILED, null, e.getMessage()));
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Validate one order of a batch.
+     * User checks are shared across the batch so each distinct user is verified once.
+     *
+     * @return The rejection reason, or null if the order is valid
+     */
+    private String validateForBatch(CreateOrderDTO createOrderDTO, Map<Integer, Boolean> verifiedUsers) {
+        if (createOrderDTO == null) {
+            return "Order is required";
+        }
+        Set<ConstraintViolation<CreateOrderDTO>> violations = validator.validate(createOrderDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!verifiedUsers.computeIfAbsent(createOrderDTO.getUserId(), userServiceClient::verifyUserExists)) {
+            return "User validation failed. Please ensure the user exists.";
+        }
+        return null;
+    }
+
+    /**
+     * Build a new Order entity (with its items) from a creation request
+     */
+    private Order buildOrder(CreateOrderDTO createOrderDTO) {
         Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
+        orderNumberFilter.add(order.getOrderNumber());
         order.setUserId(createOrderDTO.getUserId());
         order.setShippingAddress(createOrderDTO.getShippingAddress());
         order.setBillingAddress(createOrderDTO.getBillingAddress());
@@ -82,36 +254,165 @@ public class OrderService {
             }
         }
 
-        Order savedOrder = orderRepository.save(order);
-        return convertToDTO(savedOrder);
+        return order;
     }
 
     /**
-     * Get all orders with pagination
+     * Get all orders with pagination.
+     * Reads OrderSummary projections, so no Order entities are loaded into the persistence context.
+     * With a user filter, the total comes from the user order counters instead of a COUNT over orders.
      */
     public Page<OrderDTO> getAllOrders(int page, int limit, Integer userId, String status) {
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Order> orders;
+        Page<OrderSummary> orders;
 
         if (userId != null && status != null) {
-            orders = orderRepository.findByUserIdAndStatus(userId, status, pageable);
+            orders = PageableExecutionUtils.getPage(orderRepository.findSummariesByUserIdAndStatus(userId, status, pageable),
+                    pageable, () -> userOrderCounterService.countOrders(userId, status));
         } else if (userId != null) {
-            orders = orderRepository.findByUserId(userId, pageable);
+            orders = PageableExecutionUtils.getPage(orderRepository.findSummariesByUserId(userId, pageable),
+                    pageable, () -> userOrderCounterService.countOrders(userId, null));
         } else if (status != null) {
-            orders = orderRepository.findByStatus(status, pageable);
+            orders = orderRepository.findSummariesByStatus(status, pageable);
         } else {
-            orders = orderRepository.findAll(pageable);
+            orders = orderRepository.findAllSummaries(pageable);
+        }
+
+        return orders.map(this::convertSummaryToDTO);
+    }
+
+    /**
+     * Get orders with keyset (cursor) pagination, newest first.
+     * Seeks on (created_at, id) instead of scanning an OFFSET, and only counts when includeTotal
+     * is set (from the user order counters when filtering by user).
+     *
+     * @param cursor       opaque cursor from a previous page, or null for the first page
+     * @param limit        maximum number of orders to return
+     * @param userId       optional user filter
+     * @param status       optional status filter
+     * @param includeTotal whether to count all matching orders
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<OrderDTO> getOrdersByCursor(String cursor, int limit, Integer userId, String status, boolean includeTotal) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Specification<Order> filter = Specification.where(OrderSpecifications.userIdEquals(userId))
+                .and(OrderSpecifications.statusEquals(status));
+
+        Window<Order> window = orderRepository.findBy(filter, query -> query
+                .sortBy(NEWEST_FIRST)
+                .limit(limit)
+                .scroll(position));
+        Long total = null;
+        if (includeTotal) {
+            total = userId != null ? userOrderCounterService.countOrders(userId, status) : orderRepository.count(filter);
+        }
+
+        return KeysetCursor.toPage(window, position, Order::getCreatedAt, Order::getId,
+                this::convertToDTOWithoutItems, total);
+    }
+
+    /**
+     * Stream every order matching the filters to the sink, by ascending ID.
+     * Rows are read through a forward-only cursor with a fixed fetch size and handed to the sink
+     * one by one, and the persistence context is cleared every orders.export.clear-every orders,
+     * so memory use does not grow with the number of exported orders. Exported entities are
+     * read-only and bypass the second-level cache.
+     *
+     * @param from         optional creation date lower bound (inclusive)
+     * @param to           optional creation date upper bound (exclusive)
+     * @param includeItems whether to fetch each order's items in the same query
+     * @param sink         receives each order, inside the read transaction
+     * @return the number of exported orders
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(Integer userId, String status, LocalDateTime from, LocalDateTime to,
+                             boolean includeItems, Consumer<OrderDTO> sink) {
+        Specification<Order> filter = Specification.where(OrderSpecifications.userIdEquals(userId))
+                .and(OrderSpecifications.statusEquals(status))
+                .and(OrderSpecifications.createdBetween(from, to));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> root = query.from(Order.class);
+        if (includeItems) {
+            // Rows of one order are adjacent (ordered by ID), so the cursor assembles one order at a time
+            root.fetch("orderItems", JoinType.LEFT);
         }
+        Predicate predicate = filter.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
 
-        return orders.map(this::convertToDTOWithoutItems);
+        long exported = 0;
+        try (Stream<Order> orders = entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .setHint(AvailableHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()) {
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                sink.accept(includeItems ? convertToDTO(order) : convertToDTOWithoutItems(order));
+                if (++exported % exportClearEvery == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return exported;
     }
 
     /**
-     * Get order by ID
+     * Get order by ID.
+     * A cached order (and its cached items) is served from the second-level cache without SQL;
+     * otherwise the order and its items are fetched in one query, which also populates the cache.
      */
+    @Transactional(readOnly = true)
     public Optional<OrderDTO> getOrderById(Long id) {
-        return orderRepository.findById(id)
-                .map(this::convertToDTO);
+        Optional<Order> order = entityManager.getEntityManagerFactory().getCache().contains(Order.class, id)
+                ? orderRepository.findById(id)
+                : orderRepository.findWithItemsById(id);
+        return order.map(this::convertToDTO);
+    }
+
+    /**
+     * Get an order by its order number.
+     * Numbers the order number filter has never seen are answered without a query (or a transaction);
+     * the others are fetched with their items in one query.
+     */
+    public Optional<OrderDTO> getOrderByNumber(String orderNumber) {
+        if (!orderNumberFilter.mightContain(orderNumber)) {
+            return Optional.empty();
+        }
+        Optional<OrderDTO> order = orderRepository.findWithItemsByOrderNumber(orderNumber).map(this::convertToDTO);
+        orderNumberFilter.recordLookup(order.isPresent());
+        return order;
+    }
+
+    /**
+     * Get many orders with their items by ID.
+     * Distinct IDs are loaded in chunks of orders.multi-get.chunk-size, one IN query per chunk.
+     * Returns one result per requested ID, in request order, with NOT_FOUND for unknown IDs.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderLookupResultDTO> getOrdersByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<Long, OrderDTO> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += multiGetChunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + multiGetChunkSize, distinctIds.size()));
+            for (Order order : orderRepository.findWithItemsByIdIn(chunk)) {
+                found.put(order.getId(), convertToDTO(order));
+            }
+            entityManager.clear();
+        }
+
+        return ids.stream()
+                .map(id -> found.containsKey(id)
+                        ? new OrderLookupResultDTO(id, OrderLookupResultDTO.FOUND, found.get(id))
+                        : new OrderLookupResultDTO(id, OrderLookupResultDTO.NOT_FOUND, null))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -119,8 +420,11 @@ public class OrderService {
      */
     @Transactional
     public Optional<OrderDTO> updateOrder(Long id, UpdateOrderDTO updateOrderDTO) {
-        return orderRepository.findById(id)
+        // Locked: item writers add to the total concurrently, and this writes the whole row
+        return orderRepository.findWithItemsForUpdateById(id)
                 .map(order -> {
+                    String previousStatus = order.getStatus();
+                    OrderRollupRecorder.Contribution before = orderRollupRecorder.contributionOf(order);
                     if (updateOrderDTO.getShippingAddress() != null) {
                         order.setShippingAddress(updateOrderDTO.getShippingAddress());
                     }
@@ -134,34 +438,108 @@ public class OrderService {
                         order.setStatus(updateOrderDTO.getStatus());
                     }
                     Order updatedOrder = orderRepository.save(order);
+                    if (!Objects.equals(previousStatus, updatedOrder.getStatus())) {
+                        orderEventOutbox.orderStatusChanged(updatedOrder, previousStatus);
+                    }
+                    orderRollupRecorder.orderChanged(before, updatedOrder);
+                    orderChangeLog.orderChanged(id, OrderChange.Type.UPDATED);
                     return convertToDTO(updatedOrder);
                 });
     }
 
     /**
-     * Delete an order
+     * Update the supplied fields of an order if it is still at the given version, in one conditional UPDATE.
+     * Address changes are written without reading the order. A status or total change also needs the previous
+     * state for the outbox event and the rollups: the version is claimed first with an UPDATE of the version
+     * alone, and only a successful claim reads the order, locked by then, before writing the fields. A conflict
+     * costs no read before the write either way.
      */
     @Transactional
-    public boolean deleteOrder(Long id) {
-        if (orderRepository.existsById(id)) {
-            orderRepository.deleteById(id);
-            return true;
+    public OrderPatchResultDTO patchOrder(Long id, PatchOrderDTO patchOrderDTO) {
+        boolean tracked = patchOrderDTO.getStatus() != null || patchOrderDTO.getTotalAmount() != null;
+        boolean applied = tracked
+                ? orderConditionalUpdater.claim(id, patchOrderDTO.getVersion())
+                : orderConditionalUpdater.update(id, patchOrderDTO);
+        if (!applied) {
+            return orderRepository.findVersionById(id)
+                    .map(version -> new OrderPatchResultDTO(id, OrderPatchResultDTO.CONFLICT, version))
+                    .orElseGet(() -> new OrderPatchResultDTO(id, OrderPatchResultDTO.NOT_FOUND, null));
         }
-        return false;
+        long version = patchOrderDTO.getVersion() + 1;
+
+        if (tracked) {
+            // Read under the row lock of the claim, so item writers cannot change the units meanwhile
+            OrderConditionalUpdater.ClaimedOrder claimed = orderConditionalUpdater.read(id);
+            Order order = claimed.order();
+            OrderRollupRecorder.Contribution contribution = orderRollupRecorder.contributionOf(order, claimed.itemUnits());
+            orderConditionalUpdater.write(id, patchOrderDTO);
+            String previousStatus = order.getStatus();
+            if (patchOrderDTO.getStatus() != null) {
+                order.setStatus(patchOrderDTO.getStatus());
+            }
+            if (patchOrderDTO.getTotalAmount() != null) {
+                order.setTotalAmount(patchOrderDTO.getTotalAmount());
+            }
+            if (!Objects.equals(previousStatus, order.getStatus())) {
+                orderEventOutbox.orderStatusChanged(order, previousStatus);
+            }
+            orderRollupRecorder.orderChanged(contribution, order);
+        }
+        orderChangeLog.orderChanged(id, OrderChange.Type.UPDATED);
+        return new OrderPatchResultDTO(id, OrderPatchResultDTO.UPDATED, version);
+    }
+
+    /**
+     * Delete an order.
+     * Only the order row is read (locked, for the event and the rollups); its items are not loaded,
+     * they go with the single DELETE of the order (see OrderDeleter).
+     */
+    @Transactional
+    public boolean deleteOrder(Long id) {
+        return orderRepository.findForUpdateById(id)
+                .map(order -> {
+                    OrderRollupRecorder.Contribution contribution = orderRollupRecorder.contributionOf(order);
+                    entityManager.detach(order);
+                    orderDeleter.delete(List.of(id));
+                    orderEventOutbox.orderDeleted(order);
+                    orderRollupRecorder.orderDeleted(contribution);
+                    orderChangeLog.orderChanged(id, OrderChange.Type.DELETED);
+                    return true;
+                })
+                .orElse(false);
     }
 
     /**
-     * Get orders by user ID with pagination
+     * Get orders by user ID with pagination (total from the user order counters)
      */
     public Page<OrderDTO> getOrdersByUserId(Integer userId, int page, int limit) {
         Pageable pageable = PageRequest.of(page - 1, limit);
-        return orderRepository.findByUserId(userId, pageable)
-                .map(this::convertToDTOWithoutItems);
+        return PageableExecutionUtils.getPage(orderRepository.findSummariesByUserId(userId, pageable),
+                        pageable, () -> userOrderCounterService.countOrders(userId, null))
+                .map(this::convertSummaryToDTO);
+    }
+
+    /**
+     * Get the order count, order amount and latest order date of a user, overall and per status
+     */
+    public UserOrderSummaryDTO getUserOrderSummary(Integer userId) {
+        return userOrderCounterService.getSummary(userId);
+    }
+
+    /**
+     * Purge the cached UserService existence check for a user.
+     * Called when a user has been deleted so new orders are validated again.
+     */
+    public void invalidateUserCache(Integer userId) {
+        userServiceClient.invalidateUser(userId);
     }
 
     /**
      * Get enriched order data by fetching user and cart information from other services.
      * Demonstrates inter-service communication.
+     * Both lookups run concurrently on the enrichment executor and share a single deadline,
+     * so latency tracks the slower call rather than the sum. Parts that have not arrived
+     * when the deadline passes are listed under "degraded" instead of blocking the response.
      * 
      * @param orderDTO The order to enrich
      * @return Map containing order data, user data, and cart data
@@ -170,25 +548,69 @@ public class OrderService {
         Map<String, Object> enrichedData = new HashMap<>();
         enrichedData.put("order", orderDTO);
 
-        // Fetch user information from UserService
-        if (orderDTO.getUserId() != null) {
-            Object userData = userServiceClient.getUserInfo(orderDTO.getUserId());
-            enrichedData.put("user", userData != null ? userData : Map.of("error", "User not found"));
+        Integer userId = orderDTO.getUserId();
+        if (userId == null) {
+            return enrichedData;
         }
 
-        // Fetch cart information from CartService
-        if (orderDTO.getUserId() != null) {
-            Object cartData = cartServiceClient.getCartByUserId(orderDTO.getUserId());
-            enrichedData.put("userCarts", cartData != null ? cartData : Map.of("info", "No carts found"));
+        // Fetch user information from UserService and cart information from CartService
+        CompletableFuture<Object> userFuture = submitEnrichment(() -> userServiceClient.getUserInfo(userId));
+        CompletableFuture<Object> cartFuture = submitEnrichment(() -> cartServiceClient.getCartByUserId(userId));
+
+        try {
+            CompletableFuture.allOf(userFuture, cartFuture).get(enrichmentTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Enrichment of order {} exceeded {} ms, returning partial data", orderDTO.getId(), enrichmentTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Handled per part below
+        }
+
+        List<String> degraded = new ArrayList<>();
+        putEnrichmentPart(enrichedData, degraded, "user", userFuture, Map.of("error", "User not found"));
+        putEnrichmentPart(enrichedData, degraded, "userCarts", cartFuture, Map.of("info", "No carts found"));
+        if (!degraded.isEmpty()) {
+            enrichedData.put("degraded", degraded);
         }
 
         return enrichedData;
     }
 
+    /**
+     * Run a downstream lookup on the enrichment executor.
+     * A saturated executor yields a failed future so the part is reported as degraded.
+     */
+    private CompletableFuture<Object> submitEnrichment(Supplier<Object> lookup) {
+        try {
+            return CompletableFuture.supplyAsync(lookup, enrichmentExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Put the result of an enrichment lookup, or mark the part as degraded if it did not
+     * complete successfully before the deadline.
+     * Cancelling a CompletableFuture does not interrupt the lookup: an abandoned call keeps its
+     * enrichment thread until the HTTP read timeout, which is therefore kept within the deadline.
+     */
+    private void putEnrichmentPart(Map<String, Object> enrichedData, List<String> degraded, String key,
+                                   CompletableFuture<Object> future, Map<String, Object> emptyValue) {
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            Object data = future.join();
+            enrichedData.put(key, data != null ? data : emptyValue);
+        } else {
+            future.cancel(false);
+            degraded.add(key);
+            enrichedData.put(key, Map.of("error", "Data unavailable before deadline"));
+        }
+    }
+
     /**
      * Convert Order entity to DTO (with items)
      */
-    private OrderDTO convertToDTO(Order order) {
+    OrderDTO convertToDTO(Order order) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setOrderNumber(order.getOrderNumber());
@@ -199,6 +621,7 @@ public class OrderService {
         dto.setStatus(order.getStatus());
         dto.setCreatedAt(order.getCreatedAt());
         dto.setUpdatedAt(order.getUpdatedAt());
+        dto.setVersion(order.getVersion());
 
         // Convert order items
         if (order.getOrderItems() != null) {
@@ -214,7 +637,7 @@ public class OrderService {
     /**
      * Convert Order entity to DTO (without items for list views)
      */
-    private OrderDTO convertToDTOWithoutItems(Order order) {
+    OrderDTO convertToDTOWithoutItems(Order order) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setOrderNumber(order.getOrderNumber());
@@ -225,6 +648,25 @@ public class OrderService {
         dto.setStatus(order.getStatus());
         dto.setCreatedAt(order.getCreatedAt());
         dto.setUpdatedAt(order.getUpdatedAt());
+        dto.setVersion(order.getVersion());
+        return dto;
+    }
+
+    /**
+     * Convert an order summary projection to DTO (without items)
+     */
+    private OrderDTO convertSummaryToDTO(OrderSummary summary) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(summary.id());
+        dto.setOrderNumber(summary.orderNumber());
+        dto.setUserId(summary.userId());
+        dto.setShippingAddress(summary.shippingAddress());
+        dto.setBillingAddress(summary.billingAddress());
+        dto.setTotalAmount(summary.totalAmount());
+        dto.setStatus(summary.status());
+        dto.setCreatedAt(summary.createdAt());
+        dto.setUpdatedAt(summary.updatedAt());
+        dto.setVersion(summary.version());
         return dto;
     }
 
@@ -0,0 +1,212 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatusTransitionResultDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Moves many orders to a new status with set-based SQL, in chunked transactions.
+ * Each chunk locks the orders that may make the transition (the allowed source statuses are part of the
+ * WHERE clause, so the database does the validation and no entity is loaded), updates them with one
+ * UPDATE ... WHERE id IN (...), and records their outbox events and rollup moves with one batch each.
+ * A chunk commits on its own, so a failure only rolls back the orders of that chunk.
+ */
+@Service
+public class OrderStatusTransitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusTransitionService.class);
+
+    /**
+     * Statuses each status can move to. DELIVERED and CANCELLED are final.
+     */
+    public static final Map<String, Set<String>> ALLOWED_TRANSITIONS = Map.of(
+            "CREATED", Set.of("PAID", "PREPARING", "SHIPPED", "CANCELLED"),
+            "PAID", Set.of("PREPARING", "SHIPPED", "CANCELLED"),
+            "PREPARING", Set.of("SHIPPED", "CANCELLED"),
+            "SHIPPED", Set.of("DELIVERED"));
+
+    private static final String SELECT_SQL = "SELECT id, order_number, user_id, status, total_amount, created_at "
+            + "FROM orders WHERE status IN (%s) AND %s ORDER BY id %s FOR UPDATE";
+
+    private static final String UPDATE_SQL =
+            "UPDATE orders SET status = ?, version = version + 1, updated_at = ? WHERE id IN (%s)";
+
+    private static final String ITEM_UNITS_SQL =
+            "SELECT order_id, SUM(quantity) AS units FROM order_items WHERE order_id IN (%s) GROUP BY order_id";
+
+    private static final RowMapper<Order> ORDER_ROW = (rs, rowNum) -> {
+        Order order = new Order(rs.getString("order_number"), rs.getInt("user_id"), null, null,
+                rs.getBigDecimal("total_amount"), rs.getString("status"));
+        order.setId(rs.getLong("id"));
+        order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return order;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private OrderChangeLog orderChangeLog;
+
+    @Autowired
+    private OrderRollupRecorder orderRollupRecorder;
+
+    @Autowired
+    private OrderCacheLocker orderCacheLocker;
+
+    @Value("${orders.status-transitions.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Statuses allowed to move to the target status, in name order (empty if the target is unknown)
+     */
+    public static Set<String> sourcesOf(String targetStatus) {
+        Set<String> sources = new TreeSet<>();
+        ALLOWED_TRANSITIONS.forEach((from, to) -> {
+            if (to.contains(targetStatus)) {
+                sources.add(from);
+            }
+        });
+        return sources;
+    }
+
+    /**
+     * Move the given orders to the target status
+     *
+     * @return The number of orders moved, and the IDs that were unknown or not allowed to move
+     */
+    public OrderStatusTransitionResultDTO transitionByIds(List<Long> ids, String targetStatus) {
+        long start = System.currentTimeMillis();
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Object> sources = new ArrayList<>(sourcesOf(targetStatus));
+        List<Long> rejectedIds = new ArrayList<>();
+        long updated = 0;
+
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            Set<Long> moved = transactionTemplate.execute(status -> {
+                List<Object> args = new ArrayList<>(sources);
+                args.addAll(chunk);
+                String sql = String.format(SELECT_SQL, placeholders(sources.size()), "id IN (" + placeholders(chunk.size()) + ")", "");
+                return apply(jdbcTemplate.query(sql, ORDER_ROW, args.toArray()), targetStatus);
+            });
+            updated += moved.size();
+            chunk.stream().filter(id -> !moved.contains(id)).forEach(rejectedIds::add);
+        }
+
+        logger.info("Moved {} of {} orders to {} in {} ms", updated, distinctIds.size(), targetStatus,
+                System.currentTimeMillis() - start);
+        return new OrderStatusTransitionResultDTO(targetStatus, updated, rejectedIds);
+    }
+
+    /**
+     * Move the orders matching a filter to the target status. Orders whose status cannot move to
+     * the target are left alone; currentStatus, if set, must be one of the allowed source statuses.
+     *
+     * @return The number of orders moved
+     */
+    public OrderStatusTransitionResultDTO transitionByFilter(Integer userId, String currentStatus,
+                                                             LocalDateTime createdBefore, String targetStatus) {
+        long start = System.currentTimeMillis();
+        List<Object> sources = new ArrayList<>(currentStatus != null ? Set.of(currentStatus) : sourcesOf(targetStatus));
+        StringBuilder filter = new StringBuilder("id > ?");
+        List<Object> filterArgs = new ArrayList<>();
+        if (userId != null) {
+            filter.append(" AND user_id = ?");
+            filterArgs.add(userId);
+        }
+        if (createdBefore != null) {
+            filter.append(" AND created_at < ?");
+            filterArgs.add(Timestamp.valueOf(createdBefore));
+        }
+        String sql = String.format(SELECT_SQL, placeholders(sources.size()), filter, "LIMIT ?");
+
+        long updated = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<Object> args = new ArrayList<>(sources);
+            args.add(afterId);
+            args.addAll(filterArgs);
+            args.add(chunkSize);
+            List<Order> orders = new ArrayList<>();
+            Set<Long> moved = transactionTemplate.execute(status -> {
+                orders.addAll(jdbcTemplate.query(sql, ORDER_ROW, args.toArray()));
+                return apply(orders, targetStatus);
+            });
+            updated += moved.size();
+            if (orders.size() < chunkSize) {
+                break;
+            }
+            afterId = orders.get(orders.size() - 1).getId();
+        }
+
+        logger.info("Moved {} orders to {} in {} ms", updated, targetStatus, System.currentTimeMillis() - start);
+        return new OrderStatusTransitionResultDTO(targetStatus, updated, List.of());
+    }
+
+    /**
+     * Move locked orders to the target status, with their outbox events and rollup moves
+     *
+     * @return The IDs of the orders moved
+     */
+    private Set<Long> apply(List<Order> orders, String targetStatus) {
+        if (orders.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        String idPlaceholders = placeholders(ids.size());
+
+        Map<Long, Long> itemUnits = new HashMap<>();
+        jdbcTemplate.query(String.format(ITEM_UNITS_SQL, idPlaceholders),
+                (RowCallbackHandler) rs -> itemUnits.put(rs.getLong("order_id"), rs.getLong("units")), ids.toArray());
+
+        orderCacheLocker.lockAll(ids);
+        List<Object> args = new ArrayList<>(List.of(targetStatus, Timestamp.valueOf(LocalDateTime.now())));
+        args.addAll(ids);
+        jdbcTemplate.update(String.format(UPDATE_SQL, idPlaceholders), args.toArray());
+
+        List<OrderRollupRecorder.Contribution> before = new ArrayList<>(orders.size());
+        List<OrderEventOutbox.StatusChange> changes = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            before.add(new OrderRollupRecorder.Contribution(order.getId(), order.getCreatedAt(), order.getStatus(),
+                    order.getUserId(), order.getTotalAmount(), itemUnits.getOrDefault(order.getId(), 0L)));
+            changes.add(new OrderEventOutbox.StatusChange(order, order.getStatus()));
+            order.setStatus(targetStatus);
+        }
+        orderEventOutbox.ordersStatusChanged(changes);
+        orderRollupRecorder.ordersStatusChanged(before, targetStatus);
+        orderChangeLog.ordersChanged(ids, OrderChange.Type.UPDATED);
+        return new HashSet<>(ids);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps orders.total_amount in step with item changes by adding each change's delta in the database.
+ * The single UPDATE ... SET total_amount = total_amount + ? is atomic, so concurrent item writes on
+ * the same order serialize on the order row instead of overwriting each other's totals, and no item
+ * has to be read to recompute the sum. It bumps the order's version like any other write, and the
+ * order's second-level cache entry is soft-locked (OrderCacheLocker) since Hibernate does not see it.
+ * <p>
+ * Callers lock the order row first (OrderRepository.findForUpdateById), so what they record alongside
+ * the delta, such as rollups, sees the order's current state. The managed Order keeps its old total
+ * and must not be modified in the same transaction.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderTotalAdjuster {
+
+    private static final String ADD_TO_TOTAL_SQL =
+            "UPDATE orders SET total_amount = total_amount + ?, version = version + 1, updated_at = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderCacheLocker orderCacheLocker;
+
+    /**
+     * Add a (possibly negative) amount to an order's total
+     */
+    public void addToTotal(Long orderId, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        orderCacheLocker.lock(orderId);
+        jdbcTemplate.update(ADD_TO_TOTAL_SQL, delta, Timestamp.valueOf(LocalDateTime.now()), orderId);
+    }
+}
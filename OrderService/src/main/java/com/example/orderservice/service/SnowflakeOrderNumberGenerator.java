@@ -0,0 +1,79 @@
+package com.example.orderservice.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order number generator.
+ * Each ID packs 41 bits of milliseconds since 2024-01-01, a 10-bit node ID and a 12-bit sequence.
+ * The time and sequence share one AtomicLong advanced with a CAS, so the hot path never blocks:
+ * when a millisecond's 4096 sequence values are used up the generator borrows the next millisecond
+ * instead of waiting, and a clock that moves backwards never produces a smaller ID.
+ */
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    /**
+     * Last issued (timestamp << SEQUENCE_BITS | sequence) value
+     */
+    private final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+    public SnowflakeOrderNumberGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeOrderNumberGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    private static final String PREFIX = "ORD-";
+
+    @Override
+    public String nextOrderNumber() {
+        return PREFIX + nextId();
+    }
+
+    /**
+     * Time (epoch milliseconds) at which a Snowflake order number was generated, or -1 for any other number
+     */
+    public static long generatedAt(String orderNumber) {
+        if (orderNumber == null || !orderNumber.startsWith(PREFIX)) {
+            return -1;
+        }
+        try {
+            long id = Long.parseLong(orderNumber.substring(PREFIX.length()));
+            return id < 0 ? -1 : (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Generate the next numeric ID
+     */
+    public long nextId() {
+        long floor = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = lastTimeAndSequence.get();
+            next = Math.max(current + 1, floor);
+        } while (!lastTimeAndSequence.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.UserOrderCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Applies order changes to the user_order_counters table as deltas, inside the caller's transaction.
+ * Called by OrderRollupRecorder with the same changes it applies to the daily rollups, so every
+ * writer that keeps the rollups current keeps the counters current too.
+ * <p>
+ * An order always counts in the stripe of its ID, so two orders of one user rarely share a row (nor do their
+ * rollup rows, striped the same way).
+ * Rows are upserted in key order, after the rollups, so concurrent transactions cannot deadlock on them.
+ * The latest order date only grows by upsert; when the latest order of a row leaves it (deleted or
+ * moved to another status), the row's date is recomputed from the orders still in it, reading indexes only.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class UserOrderCounterRecorder {
+
+    private static final String UPSERT_SQL = "INSERT INTO user_order_counters "
+            + "(user_id, status, stripe, order_count, total_amount, archived_count, archived_amount, last_order_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "total_amount = total_amount + VALUES(total_amount), archived_count = archived_count + VALUES(archived_count), "
+            + "archived_amount = archived_amount + VALUES(archived_amount), "
+            + "last_order_at = GREATEST(COALESCE(last_order_at, VALUES(last_order_at)), COALESCE(VALUES(last_order_at), last_order_at))";
+
+    // Only runs the subqueries when the leaving order was the row's latest; the order itself is excluded either way.
+    // Each half reads the (user_id, status, created_at) index backwards (it holds the id too) until the first order
+    // of the stripe, so about orders.user-counters.stripes index entries, however many orders the user has.
+    private static final String REFRESH_LAST_ORDER_SQL = "UPDATE user_order_counters SET last_order_at = ("
+            + "SELECT MAX(t.created_at) FROM ("
+            + "(SELECT created_at FROM orders WHERE user_id = ? AND status = ? AND MOD(id, ?) = ? AND id <> ? "
+            + "ORDER BY created_at DESC LIMIT 1) "
+            + "UNION ALL (SELECT created_at FROM orders_archive WHERE user_id = ? AND status = ? AND MOD(id, ?) = ? AND id <> ? "
+            + "ORDER BY created_at DESC LIMIT 1)) t) "
+            + "WHERE user_id = ? AND status = ? AND stripe = ? AND last_order_at <= ?";
+
+    private static final String ARCHIVED_SQL = "SELECT id, user_id, status, total_amount FROM orders WHERE id IN (%s)";
+
+    private static final Comparator<UserOrderCounter.Key> KEY_ORDER = Comparator
+            .comparing(UserOrderCounter.Key::getUserId)
+            .thenComparing(UserOrderCounter.Key::getStatus)
+            .thenComparingInt(UserOrderCounter.Key::getStripe);
+
+    private static final class Delta {
+        private long orderCount;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        private long archivedCount;
+        private BigDecimal archivedAmount = BigDecimal.ZERO;
+        private LocalDateTime lastOrderAt;
+
+        private boolean isZero() {
+            return orderCount == 0 && totalAmount.signum() == 0 && archivedCount == 0 && archivedAmount.signum() == 0;
+        }
+    }
+
+    private record Leaving(UserOrderCounter.Key key, Long orderId, LocalDateTime createdAt) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.user-counters.stripes:16}")
+    private int stripes;
+
+    /**
+     * Apply order changes (see OrderRollupRecorder.Change) to the counters
+     */
+    public void apply(List<OrderRollupRecorder.Change> changes) {
+        Map<UserOrderCounter.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        Set<Leaving> joining = new HashSet<>();
+        List<Leaving> leaving = new ArrayList<>();
+        for (OrderRollupRecorder.Change change : changes) {
+            OrderRollupRecorder.Contribution contribution = change.contribution();
+            UserOrderCounter.Key key = keyOf(contribution.orderId(), contribution.userId(), contribution.status());
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.orderCount += change.countDelta();
+            delta.totalAmount = delta.totalAmount.add(contribution.revenue().multiply(BigDecimal.valueOf(change.sign())));
+            Leaving move = new Leaving(key, contribution.orderId(), contribution.createdAt());
+            if (change.countDelta() > 0) {
+                delta.lastOrderAt = latest(delta.lastOrderAt, contribution.createdAt());
+                joining.add(move);
+            } else if (change.countDelta() < 0) {
+                leaving.add(move);
+            }
+        }
+        // An order that leaves and rejoins the same row (e.g. a total change) has not left it
+        leaving.removeIf(joining::contains);
+        upsert(deltas);
+        refreshLastOrder(leaving);
+    }
+
+    /**
+     * Move orders about to be archived from the live to the archived counts of their rows
+     */
+    public void ordersArchived(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Map<UserOrderCounter.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        String placeholders = String.join(", ", Collections.nCopies(orderIds.size(), "?"));
+        jdbcTemplate.query(String.format(ARCHIVED_SQL, placeholders), rs -> {
+            Delta delta = deltas.computeIfAbsent(keyOf(rs.getLong("id"), rs.getInt("user_id"), rs.getString("status")),
+                    k -> new Delta());
+            BigDecimal amount = rs.getBigDecimal("total_amount");
+            delta.orderCount--;
+            delta.totalAmount = delta.totalAmount.subtract(amount);
+            delta.archivedCount++;
+            delta.archivedAmount = delta.archivedAmount.add(amount);
+        }, orderIds.toArray());
+        upsert(deltas);
+    }
+
+    private UserOrderCounter.Key keyOf(Long orderId, Integer userId, String status) {
+        return new UserOrderCounter.Key(userId, status, (int) Math.floorMod(orderId, (long) stripes));
+    }
+
+    private void upsert(Map<UserOrderCounter.Key, Delta> deltas) {
+        List<Map.Entry<UserOrderCounter.Key, Delta>> changed = new ArrayList<>();
+        deltas.entrySet().stream().filter(entry -> !entry.getValue().isZero()).forEach(changed::add);
+        if (changed.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, changed, changed.size(), (statement, entry) -> {
+            Delta delta = entry.getValue();
+            statement.setInt(1, entry.getKey().getUserId());
+            statement.setString(2, entry.getKey().getStatus());
+            statement.setInt(3, entry.getKey().getStripe());
+            statement.setLong(4, delta.orderCount);
+            statement.setBigDecimal(5, delta.totalAmount);
+            statement.setLong(6, delta.archivedCount);
+            statement.setBigDecimal(7, delta.archivedAmount);
+            statement.setTimestamp(8, delta.lastOrderAt != null ? Timestamp.valueOf(delta.lastOrderAt) : null);
+        });
+    }
+
+    private void refreshLastOrder(List<Leaving> leaving) {
+        if (leaving.isEmpty()) {
+            return;
+        }
+        leaving.sort(Comparator.comparing(Leaving::key, KEY_ORDER));
+        jdbcTemplate.batchUpdate(REFRESH_LAST_ORDER_SQL, leaving, leaving.size(), (statement, move) -> {
+            UserOrderCounter.Key key = move.key();
+            int index = 1;
+            for (int half = 0; half < 2; half++) {
+                statement.setInt(index++, key.getUserId());
+                statement.setString(index++, key.getStatus());
+                statement.setInt(index++, stripes);
+                statement.setInt(index++, key.getStripe());
+                statement.setLong(index++, move.orderId());
+            }
+            statement.setInt(index++, key.getUserId());
+            statement.setString(index++, key.getStatus());
+            statement.setInt(index++, key.getStripe());
+            statement.setTimestamp(index, Timestamp.valueOf(move.createdAt()));
+        });
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+}
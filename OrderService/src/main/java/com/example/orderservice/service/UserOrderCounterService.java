@@ -0,0 +1,186 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.CounterCheckDTO;
+import com.example.orderservice.dto.UserOrderCounterDTO;
+import com.example.orderservice.dto.UserOrderSummaryDTO;
+import com.example.orderservice.entity.UserOrderCounter;
+import com.example.orderservice.repository.UserOrderCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Reads, rebuilds and verifies the per-user order counters maintained by UserOrderCounterRecorder.
+ * Reads sum the stripes of one user, a primary key range scan. The rebuild and the consistency check
+ * recompute the counters from the live and archived orders, and are meant for backfills and audits.
+ */
+@Service
+public class UserOrderCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserOrderCounterService.class);
+
+    /**
+     * One row per counter: the live and archived orders of a user in a status, in one stripe
+     */
+    private static final String RECOMPUTE_SQL = "SELECT t.user_id, t.status, t.stripe, "
+            + "SUM(1 - t.archived) AS order_count, SUM(CASE WHEN t.archived = 0 THEN t.total_amount ELSE 0 END) AS total_amount, "
+            + "SUM(t.archived) AS archived_count, SUM(CASE WHEN t.archived = 1 THEN t.total_amount ELSE 0 END) AS archived_amount, "
+            + "MAX(t.created_at) AS last_order_at FROM ("
+            + "SELECT user_id, status, MOD(id, %1$d) AS stripe, total_amount, created_at, 0 AS archived FROM orders "
+            + "UNION ALL SELECT user_id, status, MOD(id, %1$d) AS stripe, total_amount, created_at, 1 AS archived FROM orders_archive) t "
+            + "GROUP BY t.user_id, t.status, t.stripe";
+
+    private static final String REBUILD_SQL = "INSERT INTO user_order_counters "
+            + "(user_id, status, stripe, order_count, total_amount, archived_count, archived_amount, last_order_at) "
+            + RECOMPUTE_SQL;
+
+    @Autowired
+    private UserOrderCounterRepository userOrderCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.user-counters.stripes:16}")
+    private int stripes;
+
+    /**
+     * Order count, amount and latest order date of a user, overall and per status (zero for a user without orders)
+     */
+    @Transactional(readOnly = true)
+    public UserOrderSummaryDTO getSummary(Integer userId) {
+        Map<String, UserOrderSummaryDTO.StatusSummary> byStatus = new TreeMap<>();
+        for (UserOrderCounter counter : userOrderCounterRepository.findByUserId(userId)) {
+            UserOrderSummaryDTO.StatusSummary stripe = new UserOrderSummaryDTO.StatusSummary(counter.getStatus(),
+                    counter.getOrderCount() + counter.getArchivedCount(),
+                    counter.getTotalAmount().add(counter.getArchivedAmount()),
+                    counter.getArchivedCount(), counter.getLastOrderAt());
+            byStatus.merge(counter.getStatus(), stripe, UserOrderCounterService::add);
+        }
+        byStatus.values().removeIf(status -> status.orderCount() == 0);
+
+        long orderCount = 0;
+        long archivedOrderCount = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        LocalDateTime lastOrderAt = null;
+        for (UserOrderSummaryDTO.StatusSummary status : byStatus.values()) {
+            orderCount += status.orderCount();
+            archivedOrderCount += status.archivedOrderCount();
+            totalAmount = totalAmount.add(status.totalAmount());
+            lastOrderAt = latest(lastOrderAt, status.lastOrderAt());
+        }
+        return new UserOrderSummaryDTO(userId, orderCount, totalAmount, archivedOrderCount, lastOrderAt,
+                List.copyOf(byStatus.values()));
+    }
+
+    /**
+     * Number of orders of a user, optionally in one status, as a listing of the orders table would count them
+     * (archived orders excluded)
+     */
+    @Transactional(readOnly = true)
+    public long countOrders(Integer userId, String status) {
+        return status != null
+                ? userOrderCounterRepository.countOrdersByUserIdAndStatus(userId, status)
+                : userOrderCounterRepository.countOrdersByUserId(userId);
+    }
+
+    /**
+     * Replace all counters with a full recompute from the live and archived orders (backfill, or after a change
+     * of orders.user-counters.stripes). Runs in one transaction; on MySQL the INSERT ... SELECT locks the rows
+     * it reads, so order changes committed during the rebuild wait for it instead of being lost.
+     *
+     * @return The number of counter rows written
+     */
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.update("DELETE FROM user_order_counters");
+        int rows = jdbcTemplate.update(String.format(REBUILD_SQL, stripes));
+        logger.info("Rebuilt {} user order counter rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * Compare every counter row with a recompute from the live and archived orders
+     */
+    @Transactional(readOnly = true)
+    public CounterCheckDTO check() {
+        Map<UserOrderCounter.Key, UserOrderCounterDTO> expected = new HashMap<>();
+        jdbcTemplate.query(String.format(RECOMPUTE_SQL, stripes), rs -> {
+            Timestamp lastOrderAt = rs.getTimestamp("last_order_at");
+            UserOrderCounterDTO counter = new UserOrderCounterDTO(rs.getInt("user_id"), rs.getString("status"),
+                    rs.getInt("stripe"), rs.getLong("order_count"), rs.getBigDecimal("total_amount"),
+                    rs.getLong("archived_count"), rs.getBigDecimal("archived_amount"),
+                    lastOrderAt != null ? lastOrderAt.toLocalDateTime() : null);
+            expected.put(new UserOrderCounter.Key(counter.userId(), counter.status(), counter.stripe()), counter);
+        });
+
+        Map<UserOrderCounter.Key, UserOrderCounterDTO> actual = new HashMap<>();
+        userOrderCounterRepository.findAll().forEach(counter -> actual.put(counter.getKey(), toDTO(counter)));
+
+        Set<UserOrderCounter.Key> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        List<CounterCheckDTO.Mismatch> mismatches = new ArrayList<>();
+        for (UserOrderCounter.Key key : keys) {
+            UserOrderCounterDTO want = expected.getOrDefault(key, empty(key));
+            UserOrderCounterDTO have = actual.getOrDefault(key, empty(key));
+            if (want.orderCount() != have.orderCount() || want.totalAmount().compareTo(have.totalAmount()) != 0
+                    || want.archivedCount() != have.archivedCount()
+                    || want.archivedAmount().compareTo(have.archivedAmount()) != 0
+                    || !Objects.equals(want.lastOrderAt(), have.lastOrderAt())) {
+                mismatches.add(new CounterCheckDTO.Mismatch(want, have));
+            }
+        }
+        return new CounterCheckDTO(keys.size(), mismatches);
+    }
+
+    /**
+     * Scheduled consistency check of all counters (disabled unless a cron is set)
+     */
+    @Scheduled(cron = "${orders.user-counters.check-cron:-}", scheduler = "maintenanceScheduler")
+    public void checkCounters() {
+        CounterCheckDTO result = check();
+        if (!result.isConsistent()) {
+            logger.warn("{} of {} user order counter rows differ from a recompute, e.g. expected {} but found {}",
+                    result.mismatches().size(), result.rowsChecked(),
+                    result.mismatches().get(0).expected(), result.mismatches().get(0).actual());
+        }
+    }
+
+    private static UserOrderSummaryDTO.StatusSummary add(UserOrderSummaryDTO.StatusSummary a, UserOrderSummaryDTO.StatusSummary b) {
+        return new UserOrderSummaryDTO.StatusSummary(a.status(), a.orderCount() + b.orderCount(),
+                a.totalAmount().add(b.totalAmount()), a.archivedOrderCount() + b.archivedOrderCount(),
+                latest(a.lastOrderAt(), b.lastOrderAt()));
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+
+    private static UserOrderCounterDTO empty(UserOrderCounter.Key key) {
+        return new UserOrderCounterDTO(key.getUserId(), key.getStatus(), key.getStripe(), 0, BigDecimal.ZERO,
+                0, BigDecimal.ZERO, null);
+    }
+
+    private static UserOrderCounterDTO toDTO(UserOrderCounter counter) {
+        return new UserOrderCounterDTO(counter.getUserId(), counter.getStatus(), counter.getStripe(),
+                counter.getOrderCount(), counter.getTotalAmount(), counter.getArchivedCount(),
+                counter.getArchivedAmount(), counter.getLastOrderAt());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.orderservice.util;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Total is only computed when the caller asks for it, otherwise it is null.
+ */
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+    private final String prevCursor;
+    private final Long total;
+
+    public CursorPage(List<T> content, String nextCursor, String prevCursor, Long total) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+        this.total = total;
+    }
+
+    // Getters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+}
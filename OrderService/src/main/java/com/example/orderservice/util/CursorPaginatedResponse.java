@@ -0,0 +1,21 @@
+package com.example.orderservice.util;
+
+import java.util.List;
+
+/**
+ * Cursor-paginated response wrapper for list endpoints.
+ * Same envelope as PaginatedResponse, with opaque next/prev cursors in meta instead of page numbers.
+ */
+public class CursorPaginatedResponse<T> extends ApiResponse<List<T>> {
+
+    public CursorPaginatedResponse(CursorPage<T> page, int limit) {
+        super(page.getContent());
+
+        getMeta().put("limit", limit);
+        getMeta().put("nextCursor", page.getNextCursor());
+        getMeta().put("prevCursor", page.getPrevCursor());
+        if (page.getTotal() != null) {
+            getMeta().put("total", page.getTotal());
+        }
+    }
+}
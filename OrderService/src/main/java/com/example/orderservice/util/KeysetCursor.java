@@ -0,0 +1,114 @@
+package com.example.orderservice.util;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque cursor for keyset pagination on (created_at, id).
+ * Encodes the scroll direction and the keys of the boundary row as a URL-safe string.
+ */
+public final class KeysetCursor {
+
+    public static final String CREATED_AT = "createdAt";
+    public static final String ID = "id";
+
+    private static final String FORWARD = "n";
+    private static final String BACKWARD = "p";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Cursor that continues after the given row (older rows)
+     */
+    public static String next(LocalDateTime createdAt, Long id) {
+        return encode(FORWARD, createdAt, id);
+    }
+
+    /**
+     * Cursor that continues before the given row (newer rows)
+     */
+    public static String prev(LocalDateTime createdAt, Long id) {
+        return encode(BACKWARD, createdAt, id);
+    }
+
+    /**
+     * Decode a cursor into a scroll position. A null cursor starts from the first row.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(CREATED_AT, LocalDateTime.parse(parts[1]));
+            keys.put(ID, Long.parseLong(parts[2]));
+            if (FORWARD.equals(parts[0])) {
+                return ScrollPosition.forward(keys);
+            }
+            if (BACKWARD.equals(parts[0])) {
+                return ScrollPosition.backward(keys);
+            }
+            throw new IllegalArgumentException("Invalid cursor");
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Build a page and its next/prev cursors from a keyset window.
+     * Rows are always returned newest first, whichever direction was scrolled.
+     *
+     * @param window    rows fetched for the scroll position
+     * @param position  the position the window was fetched from
+     * @param createdAt extracts the created_at key of a row
+     * @param id        extracts the id key of a row
+     * @param mapper    converts a row to its DTO
+     * @param total     total number of matching rows, or null when not requested
+     */
+    public static <E, T> CursorPage<T> toPage(Window<E> window, KeysetScrollPosition position,
+                                              Function<E, LocalDateTime> createdAt, Function<E, Long> id,
+                                              Function<E, T> mapper, Long total) {
+        List<E> rows = window.getContent();
+        List<T> content = rows.stream().map(mapper).collect(Collectors.toList());
+        if (rows.isEmpty()) {
+            return new CursorPage<>(content, null, null, total);
+        }
+
+        E first = rows.get(0);
+        E last = rows.get(rows.size() - 1);
+        String nextCursor;
+        String prevCursor;
+        if (position.scrollsForward()) {
+            nextCursor = window.hasNext() ? next(createdAt.apply(last), id.apply(last)) : null;
+            prevCursor = position.isInitial() ? null : prev(createdAt.apply(first), id.apply(first));
+        } else {
+            nextCursor = next(createdAt.apply(last), id.apply(last));
+            prevCursor = window.hasNext() ? prev(createdAt.apply(first), id.apply(first)) : null;
+        }
+        return new CursorPage<>(content, nextCursor, prevCursor, total);
+    }
+
+    private static String encode(String direction, LocalDateTime createdAt, Long id) {
+        String raw = direction + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.orderservice.util;
+
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported orders to a response stream, one record at a time.
+ * NDJSON writes one order per line (with its items when exported); CSV writes one row per order,
+ * or one row per item with the order columns repeated (an order without items still gets one row).
+ */
+public final class OrderExportWriter implements Consumer<OrderDTO> {
+
+    /**
+     * Export formats and their content types
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Format by name (case-insensitive), empty if unknown
+         */
+        public static Optional<Format> parse(String name) {
+            return Arrays.stream(values())
+                    .filter(format -> format.name().equals(name.toUpperCase(Locale.ROOT)))
+                    .findFirst();
+        }
+    }
+
+    private static final List<String> ORDER_COLUMNS = List.of("id", "orderNumber", "userId", "status", "totalAmount",
+            "shippingAddress", "billingAddress", "createdAt", "updatedAt");
+    private static final List<String> ITEM_COLUMNS = List.of("itemId", "productId", "quantity", "unitPrice", "totalLine");
+
+    private final Format format;
+    private final boolean includeItems;
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+
+    private OrderExportWriter(Format format, boolean includeItems, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.includeItems = includeItems;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // The writer is shared across records and closed by the caller
+        this.objectMapper = objectMapper.copy().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Writer for the format, with the CSV header already written
+     */
+    public static OrderExportWriter open(Format format, boolean includeItems, OutputStream out, ObjectMapper objectMapper) {
+        OrderExportWriter exportWriter = new OrderExportWriter(format, includeItems, out, objectMapper);
+        if (format == Format.CSV) {
+            List<String> header = new ArrayList<>(ORDER_COLUMNS);
+            if (includeItems) {
+                header.addAll(ITEM_COLUMNS);
+            }
+            exportWriter.writeCsvRow(header);
+        }
+        return exportWriter;
+    }
+
+    @Override
+    public void accept(OrderDTO order) {
+        try {
+            if (format == Format.NDJSON) {
+                objectMapper.writeValue(writer, order);
+                writer.write('\n');
+            } else if (!includeItems || order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+                List<Object> row = orderColumns(order);
+                if (includeItems) {
+                    ITEM_COLUMNS.forEach(column -> row.add(null));
+                }
+                writeCsvRow(row);
+            } else {
+                for (OrderItemDTO item : order.getOrderItems()) {
+                    List<Object> row = orderColumns(order);
+                    row.addAll(Arrays.asList(item.getId(), item.getProductId(), item.getQuantity(),
+                            item.getUnitPrice(), item.getTotalLine()));
+                    writeCsvRow(row);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write out buffered records
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private static List<Object> orderColumns(OrderDTO order) {
+        return new ArrayList<>(Arrays.asList(order.getId(), order.getOrderNumber(), order.getUserId(), order.getStatus(),
+                order.getTotalAmount(), order.getShippingAddress(), order.getBillingAddress(),
+                order.getCreatedAt(), order.getUpdatedAt()));
+    }
+
+    private void writeCsvRow(List<?> values) {
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values.get(i);
+                if (value != null) {
+                    writer.write(csvField(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Quote a field containing a separator, quote or line break (RFC 4180)
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
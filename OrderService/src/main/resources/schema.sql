@@ -19,10 +19,15 @@ CREATE TABLE IF NOT EXISTS `orders` (
   `status` varchar(50) NOT NULL DEFAULT 'CREATED',
   `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  `version` bigint NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`),
   UNIQUE KEY `order_number` (`order_number`),
   KEY `idx_orders_user_id` (`user_id`),
-  KEY `idx_orders_status` (`status`)
+  KEY `idx_orders_status` (`status`),
+  KEY `idx_orders_created_at_id` (`created_at`, `id`),
+  KEY `idx_orders_user_created_at_id` (`user_id`, `created_at`, `id`),
+  KEY `idx_orders_status_created_at_id` (`status`, `created_at`, `id`),
+  KEY `idx_orders_user_status_created_at_id` (`user_id`, `status`, `created_at`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 --
@@ -40,7 +45,153 @@ CREATE TABLE IF NOT EXISTS `order_items` (
   PRIMARY KEY (`id`),
   KEY `idx_order_items_order_id` (`order_id`),
   KEY `idx_order_items_product_id` (`product_id`),
+  KEY `idx_order_items_created_at_id` (`created_at`, `id`),
+  KEY `idx_order_items_order_created_at_id` (`order_id`, `created_at`, `id`),
   CONSTRAINT `fk_order_items_order` FOREIGN KEY (`order_id`) REFERENCES `orders` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
+--
+-- Table structure for table `order_outbox`
+-- Order events waiting to be published to Kafka, deleted once published; claimed_until leases an event
+-- to the relay publishing it.
+--
+
+CREATE TABLE IF NOT EXISTS `order_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `order_id` bigint NOT NULL,
+  `event_type` varchar(50) NOT NULL,
+  `payload` varchar(4000) NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `claimed_until` timestamp NULL DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_order_outbox_order_id` (`order_id`, `id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+--
+-- Table structure for table `order_rollups`
+-- Daily order count, revenue and item units per dimension (ALL, STATUS, USER) and stripe (order ID modulo
+-- orders.rollups.stripes), maintained as deltas by OrderService and OrderItemService.
+--
+
+CREATE TABLE IF NOT EXISTS `order_rollups` (
+  `dimension` varchar(20) NOT NULL,
+  `dimension_value` varchar(50) NOT NULL,
+  `bucket_date` date NOT NULL,
+  `stripe` int NOT NULL DEFAULT 0,
+  `order_count` bigint NOT NULL DEFAULT 0,
+  `revenue` decimal(19,2) NOT NULL DEFAULT 0,
+  `item_units` bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (`dimension`, `dimension_value`, `bucket_date`, `stripe`),
+  KEY `idx_order_rollups_bucket_date` (`bucket_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+--
+-- Table structure for table `user_order_counters`
+-- Order count, amount and latest order date per user, status and stripe (order ID modulo
+-- orders.user-counters.stripes), maintained as deltas alongside `order_rollups`.
+--
+
+CREATE TABLE IF NOT EXISTS `user_order_counters` (
+  `user_id` int NOT NULL,
+  `status` varchar(50) NOT NULL,
+  `stripe` int NOT NULL,
+  `order_count` bigint NOT NULL DEFAULT 0,
+  `total_amount` decimal(19,2) NOT NULL DEFAULT 0,
+  `archived_count` bigint NOT NULL DEFAULT 0,
+  `archived_amount` decimal(19,2) NOT NULL DEFAULT 0,
+  `last_order_at` timestamp NULL DEFAULT NULL,
+  PRIMARY KEY (`user_id`, `status`, `stripe`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+--
+-- Table structure for tables `orders_archive` and `order_items_archive`
+-- Orders in a final status moved out of `orders` and `order_items` by the archival job,
+-- with the same columns plus `archived_at`.
+--
+
+CREATE TABLE IF NOT EXISTS `orders_archive` (
+  `id` bigint NOT NULL,
+  `order_number` varchar(50) NOT NULL,
+  `user_id` int NOT NULL,
+  `shipping_address` varchar(300) NOT NULL,
+  `billing_address` varchar(300) NOT NULL,
+  `total_amount` decimal(15,2) NOT NULL,
+  `status` varchar(50) NOT NULL,
+  `created_at` timestamp NOT NULL,
+  `updated_at` timestamp NOT NULL,
+  `version` bigint NOT NULL,
+  `archived_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `order_number` (`order_number`),
+  KEY `idx_orders_archive_user_created_at` (`user_id`, `created_at`),
+  KEY `idx_orders_archive_created_at` (`created_at`),
+  KEY `idx_orders_archive_user_status_created_at` (`user_id`, `status`, `created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `order_items_archive` (
+  `id` bigint NOT NULL,
+  `order_id` bigint NOT NULL,
+  `product_id` varchar(255) NOT NULL,
+  `quantity` int NOT NULL,
+  `unit_price` decimal(15,2) NOT NULL,
+  `total_line` decimal(15,2) NOT NULL,
+  `created_at` timestamp NOT NULL,
+  `archived_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `idx_order_items_archive_order_id` (`order_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+--
+-- Table structure for table `order_changes`
+-- Order change feed (GET /api/orders/changes): one row per order change, numbered (seq)
+-- after commit by OrderChangeSequencer, deleted after orders.changes.retention-hours.
+--
+
+CREATE TABLE IF NOT EXISTS `order_changes` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `seq` bigint DEFAULT NULL,
+  `order_id` bigint NOT NULL,
+  `change_type` varchar(20) NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `idx_order_changes_seq` (`seq`),
+  KEY `idx_order_changes_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+--
+-- Table structure for table `order_change_sequence`
+-- Single row: last sequence number handed out, and last one purged by retention.
+--
+
+CREATE TABLE IF NOT EXISTS `order_change_sequence` (
+  `id` int NOT NULL,
+  `last_seq` bigint NOT NULL,
+  `purged_seq` bigint NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB;
+
+INSERT IGNORE INTO `order_change_sequence` (`id`, `last_seq`, `purged_seq`) VALUES (1, 0, 0);
+
+--
+-- ID allocation tables for `orders` and `order_items`
+-- Hibernate hands out IDs in blocks of 50 (pooled-lo) from these tables so that
+-- inserts can be grouped into JDBC batches. Seeded past the current max id.
+--
+
+CREATE TABLE IF NOT EXISTS `orders_seq` (
+  `next_val` bigint NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO `orders_seq` (`next_val`)
+SELECT COALESCE(MAX(`id`), 0) + 1 FROM `orders`
+WHERE NOT EXISTS (SELECT 1 FROM `orders_seq`);
+
+CREATE TABLE IF NOT EXISTS `order_items_seq` (
+  `next_val` bigint NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO `order_items_seq` (`next_val`)
+SELECT COALESCE(MAX(`id`), 0) + 1 FROM `order_items`
+WHERE NOT EXISTS (SELECT 1 FROM `order_items_seq`);
+
 COMMIT;
@@ -0,0 +1,207 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.config.ResilienceConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the circuit breaker and bulkhead around CartService calls.
+ * CartService is replaced by a local stub server whose behavior can be switched at runtime.
+ */
+class DownstreamGuardTest {
+
+    private enum Mode { OK, FAIL, NOT_FOUND, SLOW }
+
+    private HttpServer cartStub;
+    private volatile Mode mode = Mode.OK;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch slowRequestStarted = new CountDownLatch(1);
+    private DownstreamGuard guard;
+    private CartServiceClient client;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cartStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        cartStub.setExecutor(Executors.newCachedThreadPool());
+        cartStub.createContext("/paniers/", exchange -> {
+            requests.incrementAndGet();
+            int status = switch (mode) {
+                case OK, SLOW -> 200;
+                case FAIL -> 500;
+                case NOT_FOUND -> 404;
+            };
+            if (mode == Mode.SLOW) {
+                slowRequestStarted.countDown();
+                sleep(300);
+            }
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        cartStub.start();
+
+        ResilienceConfig config = new ResilienceConfig();
+        ReflectionTestUtils.setField(config, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(config, "minimumCalls", 4);
+        ReflectionTestUtils.setField(config, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slowCallDurationMs", 200L);
+        ReflectionTestUtils.setField(config, "slowCallRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "waitInOpenMs", 300L);
+        ReflectionTestUtils.setField(config, "halfOpenCalls", 2);
+        ReflectionTestUtils.setField(config, "cartServiceMaxConcurrentCalls", 1);
+        guard = config.cartServiceGuard(config.circuitBreakerRegistry(), config.bulkheadRegistry());
+        guard.bindTo(meterRegistry);
+
+        client = new CartServiceClient(new RestTemplate(), guard);
+        ReflectionTestUtils.setField(client, "cartServiceUrl", "http://127.0.0.1:" + cartStub.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartStub.stop(0);
+    }
+
+    @Test
+    void opensAfterFailuresAndFailsFast() {
+        tripBreaker();
+
+        int before = requests.get();
+        long start = System.nanoTime();
+        assertNull(client.getCartByUserId(1));
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        assertEquals(before, requests.get(), "open breaker must not reach the network");
+        assertTrue(elapsedMicros < 20_000, "rejection should be immediate, took " + elapsedMicros + " us");
+        assertEquals(1, guard.getCircuitBreaker().getMetrics().getNumberOfNotPermittedCalls());
+    }
+
+    @Test
+    void halfOpenProbesCloseTheBreakerOnSuccess() {
+        tripBreaker();
+        sleep(350);
+        mode = Mode.OK;
+
+        client.getCartByUserId(1);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, state());
+        client.getCartByUserId(1);
+        assertEquals(CircuitBreaker.State.CLOSED, state());
+    }
+
+    @Test
+    void halfOpenProbesReopenTheBreakerOnFailure() {
+        tripBreaker();
+        sleep(350);
+
+        client.getCartByUserId(1);
+        client.getCartByUserId(1);
+        assertEquals(CircuitBreaker.State.OPEN, state());
+    }
+
+    @Test
+    void slowCallsOpenTheBreaker() {
+        mode = Mode.SLOW;
+        for (int i = 0; i < 4; i++) {
+            client.getCartByUserId(1);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, state());
+    }
+
+    @Test
+    void notFoundResponsesDoNotOpenTheBreaker() {
+        mode = Mode.NOT_FOUND;
+        for (int i = 0; i < 10; i++) {
+            assertNull(client.getCartByUserId(1));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, state());
+        assertEquals(10, requests.get());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheConcurrencyCap() throws Exception {
+        mode = Mode.SLOW;
+        CompletableFuture<Object> inFlight = CompletableFuture.supplyAsync(() -> client.getCartByUserId(1));
+        assertTrue(slowRequestStarted.await(2, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        assertNull(client.getCartByUserId(2));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 100, "bulkhead rejection should be immediate, took " + elapsedMillis + " ms");
+        assertEquals(1, requests.get());
+        assertNotNull(inFlight.get(2, TimeUnit.SECONDS));
+        assertEquals(1, guard.getBulkhead().getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void recordsEachCallByOperationAndOutcome() {
+        client.getCartByUserId(1);
+        mode = Mode.NOT_FOUND;
+        client.getCartById(1);
+        tripBreaker();
+        client.getCartByUserId(1);
+
+        // The success is in the breaker's window of 4, so it opens after the third 500
+        assertEquals(1, calls("getCartByUser", "SUCCESS"));
+        assertEquals(1, calls("getCart", "CLIENT_ERROR"));
+        assertEquals(3, calls("getCartByUser", "SERVER_ERROR"));
+        assertEquals(2, calls("getCartByUser", "REJECTED"));
+        assertTrue(meterRegistry.get(DownstreamGuard.CALLS_METRIC).tag("outcome", "SUCCESS").timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+
+        // 4xx answers are not errors; server errors and rejections are counted by exception type
+        assertEquals(3, meterRegistry.get(DownstreamGuard.ERRORS_METRIC)
+                .tag("exception", "InternalServerError").counter().count());
+        assertEquals(2, meterRegistry.get(DownstreamGuard.ERRORS_METRIC)
+                .tag("exception", "CallNotPermittedException").counter().count());
+        assertEquals(0, meterRegistry.find(DownstreamGuard.ERRORS_METRIC).tag("operation", "getCart").counters().size());
+    }
+
+    private long calls(String operation, String outcome) {
+        return meterRegistry.get(DownstreamGuard.CALLS_METRIC)
+                .tag("service", ResilienceConfig.CART_SERVICE)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private void tripBreaker() {
+        mode = Mode.FAIL;
+        for (int i = 0; i < 4; i++) {
+            client.getCartByUserId(1);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, state());
+    }
+
+    private CircuitBreaker.State state() {
+        return guard.getCircuitBreaker().getState();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.orderservice.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the cached user existence checks in UserServiceClient.
+ * UserService is replaced by a local stub server that counts requests.
+ */
+class UserServiceClientTest {
+
+    private HttpServer userStub;
+    private final AtomicInteger requests = new AtomicInteger();
+    private UserServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        userStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        userStub.createContext("/users/", exchange -> {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            int status = path.endsWith("/1") ? 200 : path.endsWith("/404") ? 404 : 500;
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        userStub.start();
+
+        client = new UserServiceClient(new RestTemplate(), new UserExistenceCache(1000, 60000, 60000),
+                new DownstreamGuard(CircuitBreaker.ofDefaults("userservice"), Bulkhead.ofDefaults("userservice")));
+        ReflectionTestUtils.setField(client, "userServiceUrl", "http://127.0.0.1:" + userStub.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userStub.stop(0);
+    }
+
+    @Test
+    void repeatedChecksForExistingUserSkipTheNetwork() {
+        assertTrue(client.verifyUserExists(1));
+        assertTrue(client.verifyUserExists(1));
+        assertTrue(client.verifyUserExists(1));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void confirmedNotFoundIsCachedNegatively() {
+        assertFalse(client.verifyUserExists(404));
+        assertFalse(client.verifyUserExists(404));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void downstreamErrorsAreNotCached() {
+        assertTrue(client.verifyUserExists(500));
+        assertTrue(client.verifyUserExists(500));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void invalidationPurgesCachedUser() {
+        assertTrue(client.verifyUserExists(1));
+        client.invalidateUser(1);
+        assertTrue(client.verifyUserExists(1));
+        assertEquals(2, requests.get());
+    }
+}
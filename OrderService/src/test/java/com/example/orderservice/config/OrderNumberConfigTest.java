@@ -0,0 +1,35 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.service.OrderNumberGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the order number generator configuration: a node ID is required outside the dev and test profiles.
+ */
+class OrderNumberConfigTest {
+
+    private final OrderNumberConfig config = new OrderNumberConfig();
+
+    @Test
+    void aMissingNodeIdFailsStartupOutsideDev() {
+        MockEnvironment production = new MockEnvironment();
+        production.setActiveProfiles("prod");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> config.orderNumberGenerator(-1, production));
+        assertTrue(error.getMessage().contains("ORDER_NODE_ID"));
+        assertNotNull(config.orderNumberGenerator(3, production).nextOrderNumber());
+    }
+
+    @Test
+    void devDerivesANodeIdFromTheHostName() {
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+
+        OrderNumberGenerator generator = config.orderNumberGenerator(-1, dev);
+        assertTrue(generator.nextOrderNumber().startsWith("ORD-"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.orderservice.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that carrier-thread pinning is detected through JFR and reported with its site.
+ */
+class VirtualThreadPinningMonitorTest {
+
+    private final Object monitorLock = new Object();
+    private final ReentrantLock reentrantLock = new ReentrantLock();
+
+    private SimpleMeterRegistry registry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        // JDK 24 (JEP 491) lets virtual threads block inside synchronized without pinning
+        assumeTrue(Runtime.version().feature() < 24);
+        registry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(10);
+        monitor.bindTo(registry);
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    void reportsBlockingInsideSynchronizedButNotUnderReentrantLock() throws Exception {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (pinnedTimers().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.ofVirtual().start(this::sleepUnderReentrantLock).join();
+            Thread.ofVirtual().start(this::sleepInsideSynchronized).join();
+            Thread.sleep(500);
+        }
+
+        Collection<Timer> timers = pinnedTimers();
+        assertFalse(timers.isEmpty(), "expected a pinned virtual thread to be reported");
+        assertTrue(timers.stream().allMatch(timer -> timer.getId().getTag("site").endsWith("sleepInsideSynchronized")),
+                "only the synchronized section should be reported, got " + timers.stream().map(t -> t.getId().getTag("site")).toList());
+        assertTrue(timers.stream().mapToLong(Timer::count).sum() >= 1);
+    }
+
+    private Collection<Timer> pinnedTimers() {
+        return registry.find(VirtualThreadPinningMonitor.PINNED_METRIC).timers();
+    }
+
+    private void sleepInsideSynchronized() {
+        synchronized (monitorLock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void sleepUnderReentrantLock() {
+        reentrantLock.lock();
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            reentrantLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderChangeSequencer;
+import com.example.orderservice.service.OrderNumberFilter;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.SnowflakeOrderNumberGenerator;
+import com.example.orderservice.support.SqlStatementCounter;
+import com.example.orderservice.support.TestOrders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for GET /api/orders/by-number/{orderNumber}: unknown numbers are rejected by the
+ * order number filter without SQL, known ones (including those of other instances) are fetched with their items.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderByNumberTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderNumberFilter orderNumberFilter;
+
+    @Autowired
+    private OrderChangeSequencer orderChangeSequencer;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private SqlStatementCounter sql;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        sql = new SqlStatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    void newOrdersAreFoundByNumber() throws Exception {
+        assertTrue(orderNumberFilter.isReady());
+        OrderDTO order = orderService.createOrder(TestOrders.order(1, 2));
+        double found = lookups("found");
+
+        sql.assertStatements(1, "GET /api/orders/by-number/{orderNumber}",
+                () -> mockMvc.perform(get("/api/orders/by-number/{orderNumber}", order.getOrderNumber()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.id").value(order.getId()))
+                        .andExpect(jsonPath("$.data.orderItems.length()").value(2)));
+        assertEquals(found + 1, lookups("found"), 0.0);
+    }
+
+    @Test
+    void unknownNumbersAreRejectedWithoutSql() throws Exception {
+        double rejected = lookups("rejected");
+
+        sql.assertStatements(0, "GET /api/orders/by-number/{orderNumber}",
+                () -> mockMvc.perform(get("/api/orders/by-number/{orderNumber}", "ORD-DOES-NOT-EXIST"))
+                        .andExpect(status().isNotFound())
+                        .andExpect(jsonPath("$.error.code").value("NOT_FOUND"))
+                        .andExpect(jsonPath("$.error.details.orderNumber").value("ORD-DOES-NOT-EXIST")));
+
+        assertEquals(rejected + 1, lookups("rejected"), 0.0);
+        assertTrue(meterRegistry.get("orders.number.filter.memory").gauge().value() > 0);
+        assertTrue(meterRegistry.get("orders.number.filter.fill").gauge().value() > 0);
+    }
+
+    @Test
+    void theStartupScanLoadsExistingNumbers() throws Exception {
+        OrderDTO order = orderService.createOrder(TestOrders.order(1, 0));
+        // A number the filter has not seen, as if written before this instance started
+        jdbcTemplate.update("UPDATE orders SET order_number = 'LEGACY-0001' WHERE id = ?", order.getId());
+        mockMvc.perform(get("/api/orders/by-number/{orderNumber}", "LEGACY-0001")).andExpect(status().isNotFound());
+
+        orderNumberFilter.load();
+
+        mockMvc.perform(get("/api/orders/by-number/{orderNumber}", "LEGACY-0001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(order.getId()));
+    }
+
+    @Test
+    void ordersOfOtherInstancesAreFound() throws Exception {
+        // Numbers this instance never generated, as if the orders were created on another node
+        OrderDTO recent = orderService.createOrder(TestOrders.order(1, 0));
+        String recentNumber = new SnowflakeOrderNumberGenerator(7).nextOrderNumber();
+        jdbcTemplate.update("UPDATE orders SET order_number = ? WHERE id = ?", recentNumber, recent.getId());
+        OrderDTO older = orderService.createOrder(TestOrders.order(2, 0));
+        String olderNumber = new SnowflakeOrderNumberGenerator(7,
+                () -> System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1)).nextOrderNumber();
+        jdbcTemplate.update("UPDATE orders SET order_number = ? WHERE id = ?", olderNumber, older.getId());
+
+        // Too recent for the filter to be trusted: looked up in the database
+        mockMvc.perform(get("/api/orders/by-number/{orderNumber}", recentNumber))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(recent.getId()));
+
+        // Read from the change feed once sequenced
+        orderChangeSequencer.sequencePending();
+        orderNumberFilter.catchUp();
+        mockMvc.perform(get("/api/orders/by-number/{orderNumber}", olderNumber))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(older.getId()));
+    }
+
+    private double lookups(String result) {
+        Counter counter = meterRegistry.find("orders.number.filter.lookups").tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
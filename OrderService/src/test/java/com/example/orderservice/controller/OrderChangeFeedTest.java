@@ -0,0 +1,293 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.CreateOrderItemDTO;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.service.OrderChangeFeed;
+import com.example.orderservice.service.OrderChangeSequencer;
+import com.example.orderservice.service.OrderItemService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for GET /api/orders/changes: changes numbered in commit order and read after a cursor,
+ * as pages, long-polls or an SSE stream, and stalled SSE subscribers. The tests run the sequencer themselves.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderChangeFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderChangeSequencer orderChangeSequencer;
+
+    @Autowired
+    private OrderChangeFeed orderChangeFeed;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @Value("${orders.changes.sse-pool-size}")
+    private int ssePoolSize;
+
+    @Value("${orders.changes.write-timeout-ms}")
+    private long writeTimeoutMs;
+
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        orderChangeSequencer.advance();
+        start = orderChangeFeed.head();
+    }
+
+    @Test
+    void changesAreReadInOrderAfterTheCursor() throws Exception {
+        OrderDTO kept = orderService.createOrder(TestOrders.order(1, 1));
+        OrderDTO deleted = orderService.createOrder(TestOrders.order(2, 1));
+        UpdateOrderDTO paid = new UpdateOrderDTO();
+        paid.setStatus("PAID");
+        orderService.updateOrder(kept.getId(), paid);
+        CreateOrderItemDTO item = new CreateOrderItemDTO();
+        item.setOrderId(kept.getId());
+        item.setProductId("PROD-X");
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("3.00"));
+        orderItemService.createOrderItem(item);
+        orderService.deleteOrder(deleted.getId());
+
+        // Not numbered yet, so not visible
+        changes(start, 10).andExpect(jsonPath("$.data", hasSize(0)))
+                .andExpect(jsonPath("$.meta.nextCursor").value(Long.toString(start)));
+
+        assertEquals(5, orderChangeSequencer.sequencePending());
+        orderChangeFeed.refresh();
+        changes(start, 3)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].type", contains("CREATED", "CREATED", "UPDATED")))
+                .andExpect(jsonPath("$.data[0].orderId").value(kept.getId()))
+                .andExpect(jsonPath("$.data[0].seq").value(start + 1))
+                .andExpect(jsonPath("$.meta.nextCursor").value(Long.toString(start + 3)))
+                .andExpect(jsonPath("$.meta.hasMore").value(true));
+        changes(start + 3, 3)
+                .andExpect(jsonPath("$.data[*].type", contains("UPDATED", "DELETED")))
+                .andExpect(jsonPath("$.data[1].orderId").value(deleted.getId()))
+                .andExpect(jsonPath("$.meta.nextCursor").value(Long.toString(start + 5)))
+                .andExpect(jsonPath("$.meta.hasMore").value(false));
+
+        // Without a cursor the feed starts at the latest change
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/orders/changes")).andReturn()))
+                .andExpect(jsonPath("$.data", hasSize(0)))
+                .andExpect(jsonPath("$.meta.nextCursor").value(Long.toString(start + 5)));
+    }
+
+    @Test
+    void longPollIsAnsweredOnceAChangeIsNumbered() throws Exception {
+        MvcResult pending = mockMvc.perform(get("/api/orders/changes")
+                        .param("since", Long.toString(start))
+                        .param("waitMs", "10000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        OrderDTO order = orderService.createOrder(TestOrders.order(3, 1));
+        orderChangeSequencer.advance();
+
+        pending.getAsyncResult(5000);
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].orderId").value(order.getId()))
+                .andExpect(jsonPath("$.meta.nextCursor").value(Long.toString(start + 1)));
+    }
+
+    @Test
+    void streamWritesEachChangeAsAnEventAndResumesAfterTheLastEventId() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/orders/changes")
+                        .param("since", Long.toString(start))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        OrderDTO first = orderService.createOrder(TestOrders.order(4, 1));
+        OrderDTO second = orderService.createOrder(TestOrders.order(5, 1));
+        orderChangeSequencer.advance();
+
+        String events = awaitContent(stream, "id:" + (start + 2));
+        assertTrue(events.contains("event:change\ndata:{\"seq\":" + (start + 1) + ",\"orderId\":" + first.getId()), events);
+        assertTrue(events.contains("\"orderId\":" + second.getId()), events);
+        stream.getRequest().getAsyncContext().complete();
+
+        // A reconnecting client only gets what follows its last event
+        MvcResult resumed = mockMvc.perform(get("/api/orders/changes")
+                        .header("Last-Event-ID", Long.toString(start + 1))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        events = awaitContent(resumed, "id:" + (start + 2));
+        assertFalse(events.contains("id:" + (start + 1) + "\n"), events);
+        resumed.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void stalledSubscribersAreDroppedWithoutDelayingLongPolls() throws Exception {
+        // Enough subscribers stuck in their first write to hold every SSE thread
+        CountDownLatch unblock = new CountDownLatch(1);
+        List<StalledEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < ssePoolSize; i++) {
+            StalledEmitter emitter = new StalledEmitter(unblock);
+            assertTrue(orderChangeFeed.subscribe(start, emitter));
+            stalled.add(emitter);
+        }
+        for (StalledEmitter emitter : stalled) {
+            assertTrue(emitter.writing.await(5, TimeUnit.SECONDS));
+        }
+
+        try {
+            MvcResult pending = mockMvc.perform(get("/api/orders/changes")
+                            .param("since", Long.toString(start))
+                            .param("waitMs", "10000"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            OrderDTO order = orderService.createOrder(TestOrders.order(7, 1));
+            orderChangeSequencer.advance();
+            pending.getAsyncResult(5000);
+            mockMvc.perform(asyncDispatch(pending))
+                    .andExpect(jsonPath("$.data[0].orderId").value(order.getId()));
+
+            // Past the write timeout, the next pass drops them
+            Thread.sleep(writeTimeoutMs + 50);
+            orderChangeSequencer.advance();
+        } finally {
+            unblock.countDown();
+        }
+        // Closed once their write returns, without another delivery
+        for (StalledEmitter emitter : stalled) {
+            assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        }
+        orderService.createOrder(TestOrders.order(8, 1));
+        orderChangeSequencer.advance();
+        Thread.sleep(100);
+        for (StalledEmitter emitter : stalled) {
+            assertEquals(1, emitter.writes.get());
+        }
+    }
+
+    @Test
+    void expiredAndMalformedCursorsAreRejected() throws Exception {
+        orderService.createOrder(TestOrders.order(6, 1));
+        orderChangeSequencer.advance();
+        orderChangeSequencer.purgeBefore(LocalDateTime.now().plusMinutes(1));
+
+        changes(start, 10)
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.error.code").value("CURSOR_EXPIRED"));
+        changes(start + 1, 10).andExpect(status().isOk());
+        MvcResult stream = mockMvc.perform(get("/api/orders/changes")
+                        .param("since", Long.toString(start))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andReturn();
+        assertEquals(410, stream.getResponse().getStatus());
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/orders/changes").param("since", "abc")).andReturn()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("INVALID_CURSOR"));
+    }
+
+    private ResultActions changes(long since, int limit) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/orders/changes")
+                        .param("since", Long.toString(since))
+                        .param("limit", Integer.toString(limit)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    /**
+     * An SSE emitter whose client reads nothing: every write blocks until released
+     */
+    private static final class StalledEmitter extends SseEmitter {
+        private final CountDownLatch unblock;
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicInteger writes = new AtomicInteger();
+
+        private StalledEmitter(CountDownLatch unblock) {
+            super(60000L);
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            writes.incrementAndGet();
+            writing.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        String content = result.getResponse().getContentAsString();
+        for (int i = 0; i < 500 && !content.contains(expected); i++) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+}
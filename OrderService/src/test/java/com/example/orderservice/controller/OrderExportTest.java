@@ -0,0 +1,162 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.TestOrders;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for GET /api/orders/export.
+ */
+@SpringBootTest(properties = "orders.export.clear-every=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private final List<OrderDTO> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orders.clear();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        for (int i = 0; i < 10; i++) {
+            orders.add(orderService.createOrder(TestOrders.order(i % 2 + 1, 2)));
+        }
+    }
+
+    @Test
+    void streamsFilteredOrdersAsNdjson() throws Exception {
+        UpdateOrderDTO paid = new UpdateOrderDTO();
+        paid.setStatus("PAID");
+        orderService.updateOrder(orders.get(0).getId(), paid);
+
+        List<String> lines = export(get("/api/orders/export").param("userId", "1"), "application/x-ndjson;charset=UTF-8");
+
+        assertEquals(5, lines.size());
+        List<Long> ids = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode order = objectMapper.readTree(line);
+            assertEquals(1, order.get("userId").asInt());
+            assertTrue(order.get("orderItems").isNull());
+            ids.add(order.get("id").asLong());
+        }
+        assertEquals(ids.stream().sorted().toList(), ids, "orders are exported by ascending ID");
+
+        List<String> paidLines = export(get("/api/orders/export").param("status", "PAID").param("includeItems", "true"),
+                "application/x-ndjson;charset=UTF-8");
+        assertEquals(1, paidLines.size());
+        assertEquals(2, objectMapper.readTree(paidLines.get(0)).get("orderItems").size());
+    }
+
+    @Test
+    void streamsOneCsvRowPerItem() throws Exception {
+        List<String> lines = export(get("/api/orders/export").param("format", "csv").param("includeItems", "true"),
+                "text/csv;charset=UTF-8");
+
+        assertEquals("id,orderNumber,userId,status,totalAmount,shippingAddress,billingAddress,createdAt,updatedAt,"
+                + "itemId,productId,quantity,unitPrice,totalLine", lines.get(0));
+        assertEquals(1 + orders.size() * 2, lines.size());
+        // Addresses contain a comma and are quoted
+        assertTrue(lines.get(1).startsWith(orders.get(0).getId() + "," + orders.get(0).getOrderNumber()
+                + ",1,CREATED,20.00,\"1 rue de la Paix, Paris\",\"1 rue de la Paix, Paris\","));
+        assertTrue(lines.get(1).endsWith(",PROD-0,2,5.00,10.00"));
+    }
+
+    @Test
+    void filtersOnCreationDateRange() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(orders.size(), export(get("/api/orders/export")
+                .param("from", now.minusDays(1).toString())
+                .param("to", now.plusDays(1).toString()), "application/x-ndjson;charset=UTF-8").size());
+        assertTrue(export(get("/api/orders/export")
+                .param("from", now.plusDays(1).toString()), "application/x-ndjson;charset=UTF-8").isEmpty());
+    }
+
+    @Test
+    void rejectsUnknownFormatAndMalformedDates() throws Exception {
+        mockMvc.perform(get("/api/orders/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("VALIDATION_ERROR"));
+        mockMvc.perform(get("/api/orders/export").param("from", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.details.from").value("yesterday"));
+    }
+
+    @Test
+    void clearsThePersistenceContextWhileExporting() {
+        AtomicInteger maxManagedEntities = new AtomicInteger();
+
+        long exported = orderService.exportOrders(null, null, null, null, true, order -> {
+            int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            maxManagedEntities.accumulateAndGet(managed, Math::max);
+        });
+
+        assertEquals(orders.size(), exported);
+        // At most two orders (one order and two items each) between clears, plus the order being read
+        assertTrue(maxManagedEntities.get() <= 9, "managed entities: " + maxManagedEntities.get());
+    }
+
+    private List<String> export(MockHttpServletRequestBuilder request, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(contentType))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return body.isEmpty() ? List.of() : List.of(body.split("\r?\n"));
+    }
+}
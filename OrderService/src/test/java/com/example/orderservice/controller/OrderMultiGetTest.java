@@ -0,0 +1,105 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for GET /api/orders?ids= and POST /api/orders/lookup.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderMultiGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private final List<OrderDTO> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orders.clear();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        for (int i = 0; i < 3; i++) {
+            orders.add(orderService.createOrder(TestOrders.order(i + 1, i + 1)));
+        }
+    }
+
+    @Test
+    void returnsOrdersInRequestOrderWithNotFoundMarkers() throws Exception {
+        String ids = orders.get(2).getId() + ",-1," + orders.get(0).getId() + "," + orders.get(2).getId();
+
+        mockMvc.perform(get("/api/orders").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(4))
+                .andExpect(jsonPath("$.data[0].id").value(orders.get(2).getId()))
+                .andExpect(jsonPath("$.data[0].status").value("FOUND"))
+                .andExpect(jsonPath("$.data[0].order.orderItems.length()").value(3))
+                .andExpect(jsonPath("$.data[1].id").value(-1))
+                .andExpect(jsonPath("$.data[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.data[1].order").doesNotExist())
+                .andExpect(jsonPath("$.data[2].order.orderNumber").value(orders.get(0).getOrderNumber()))
+                .andExpect(jsonPath("$.data[3].id").value(orders.get(2).getId()))
+                .andExpect(jsonPath("$.meta.found").value(3))
+                .andExpect(jsonPath("$.meta.notFound").value(1));
+    }
+
+    @Test
+    void postVariantAcceptsIdsInTheBody() throws Exception {
+        String body = "[" + orders.get(1).getId() + ", 0, " + orders.get(0).getId() + "]";
+
+        mockMvc.perform(post("/api/orders/lookup").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].order.orderItems.length()").value(2))
+                .andExpect(jsonPath("$.data[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.data[2].order.userId").value(1))
+                .andExpect(jsonPath("$.meta.found").value(2));
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedLookups() throws Exception {
+        mockMvc.perform(post("/api/orders/lookup").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("VALIDATION_ERROR"));
+
+        StringBuilder body = new StringBuilder("[1");
+        for (int i = 2; i <= 1001; i++) {
+            body.append(',').append(i);
+        }
+        mockMvc.perform(post("/api/orders/lookup").contentType(MediaType.APPLICATION_JSON).content(body.append(']').toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.details.maxIds").value(1000));
+    }
+}
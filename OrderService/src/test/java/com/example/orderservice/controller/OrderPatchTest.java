@@ -0,0 +1,158 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.CreateOrderItemDTO;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.entity.OrderRollup;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OrderRollupRepository;
+import com.example.orderservice.service.OrderItemService;
+import com.example.orderservice.service.OrderRollupService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.SqlStatementCounter;
+import com.example.orderservice.support.TestOrders;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for PATCH /api/orders/{id}: a single conditional UPDATE on the order version,
+ * with 409 when the order has changed since the client read it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderPatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private SqlStatementCounter sql;
+    private OrderDTO order;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orderRollupRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        order = orderService.createOrder(TestOrders.order(1, 2));
+        sql = new SqlStatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    void patchWritesOnlyTheSuppliedFieldsWithoutReadingTheOrder() throws Exception {
+        assertEquals(0L, order.getVersion());
+
+        // The conditional UPDATE goes through JdbcTemplate, so Hibernate prepares nothing: no prior SELECT
+        sql.assertStatements(0, "PATCH /api/orders/{id}", () -> patchOrder("{\"version\":0,\"shippingAddress\":\"2 quai Voltaire, Paris\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("UPDATED"))
+                .andExpect(jsonPath("$.data.version").value(1)));
+
+        mockMvc.perform(get("/api/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.shippingAddress").value("2 quai Voltaire, Paris"))
+                .andExpect(jsonPath("$.data.billingAddress").value(order.getBillingAddress()))
+                .andExpect(jsonPath("$.data.version").value(1));
+    }
+
+    @Test
+    void stalePatchIsAConflict() throws Exception {
+        patchOrder("{\"version\":0,\"billingAddress\":\"3 rue du Bac, Paris\"}").andExpect(status().isOk());
+        patchOrder("{\"version\":0,\"shippingAddress\":\"4 rue du Bac, Paris\"}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error.code").value("CONFLICT"))
+                .andExpect(jsonPath("$.error.details.currentVersion").value(1));
+
+        // Item changes move the total, so they bump the version too
+        CreateOrderItemDTO item = new CreateOrderItemDTO();
+        item.setOrderId(order.getId());
+        item.setProductId("PROD-X");
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("3.00"));
+        orderItemService.createOrderItem(item);
+        // A stale status patch is refused by the version claim: only the current version is looked up, for the 409
+        sql.assertStatements(1, "stale status PATCH /api/orders/{id}", () -> patchOrder("{\"version\":1,\"status\":\"PAID\"}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error.details.currentVersion").value(2)));
+        patchOrder("{\"version\":2,\"status\":\"PAID\"}").andExpect(status().isOk());
+    }
+
+    @Test
+    void statusPatchMovesTheRollups() throws Exception {
+        patchOrder("{\"version\":0,\"status\":\"PAID\",\"totalAmount\":25.50}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(1));
+
+        mockMvc.perform(get("/api/orders/{id}", order.getId()))
+                .andExpect(jsonPath("$.data.status").value("PAID"))
+                .andExpect(jsonPath("$.data.totalAmount").value(25.50));
+        LocalDate today = LocalDate.now();
+        assertEquals(1, orderRollupService.getDailyRollups(OrderRollup.Dimension.STATUS, "PAID", today, today).get(0).orderCount());
+        assertEquals(0, orderRollupService.getDailyRollups(OrderRollup.Dimension.STATUS, "CREATED", today, today).get(0).orderCount());
+        assertTrue(orderRollupService.check(today, today).isConsistent());
+    }
+
+    @Test
+    void invalidPatchesAreRejected() throws Exception {
+        mockMvc.perform(patch("/api/orders/{id}", -1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"status\":\"PAID\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/api/orders/{id}", -1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"shippingAddress\":\"5 rue du Bac, Paris\"}"))
+                .andExpect(status().isNotFound());
+        patchOrder("{\"status\":\"PAID\"}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.details.version").value("Version is required"));
+        patchOrder("{\"version\":0}").andExpect(status().isBadRequest());
+    }
+
+    private ResultActions patchOrder(String body) throws Exception {
+        return mockMvc.perform(patch("/api/orders/{id}", order.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
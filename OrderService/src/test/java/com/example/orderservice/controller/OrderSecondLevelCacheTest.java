@@ -0,0 +1,142 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.SqlStatementCounter;
+import com.example.orderservice.support.TestOrders;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the second-level cache: cached order reads run no SQL, and writes through the
+ * order and order-item endpoints are visible to the next read.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderSecondLevelCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private SqlStatementCounter sql;
+    private OrderDTO order;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        order = orderService.createOrder(TestOrders.order(1, 3));
+        sql = new SqlStatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    void cachedOrderReadRunsNoSql() throws Exception {
+        getOrder().andExpect(status().isOk());
+
+        sql.assertStatements(0, "cached GET /api/orders/{id}", () -> getOrder()
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.orderNumber").value(order.getOrderNumber()))
+                .andExpect(jsonPath("$.data.orderItems.length()").value(3)));
+        assertTrue(entityManagerFactory.getCache().contains(Order.class, order.getId()));
+    }
+
+    @Test
+    void orderUpdateIsNeverServedStale() throws Exception {
+        getOrder().andExpect(jsonPath("$.data.status").value("CREATED"));
+
+        mockMvc.perform(put("/api/orders/{id}", order.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"SHIPPED\",\"shippingAddress\":\"2 avenue Foch, Lyon\"}"))
+                .andExpect(status().isOk());
+
+        getOrder()
+                .andExpect(jsonPath("$.data.status").value("SHIPPED"))
+                .andExpect(jsonPath("$.data.shippingAddress").value("2 avenue Foch, Lyon"));
+    }
+
+    @Test
+    void orderItemMutationsAreNeverServedStale() throws Exception {
+        getOrder().andExpect(jsonPath("$.data.orderItems.length()").value(3));
+
+        mockMvc.perform(post("/api/order-items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderId\":" + order.getId() + ",\"productId\":\"PROD-NEW\",\"quantity\":1,\"unitPrice\":9.99}"))
+                .andExpect(status().isCreated());
+        getOrder().andExpect(jsonPath("$.data.orderItems.length()").value(4));
+
+        Long itemId = order.getOrderItems().get(0).getId();
+        mockMvc.perform(put("/api/order-items/{id}", itemId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\":7}"))
+                .andExpect(status().isOk());
+        getOrder().andExpect(jsonPath("$.data.orderItems[?(@.id == " + itemId + ")].quantity").value(7));
+
+        mockMvc.perform(delete("/api/order-items/{id}", itemId)).andExpect(status().isNoContent());
+        getOrder()
+                .andExpect(jsonPath("$.data.orderItems.length()").value(3))
+                .andExpect(jsonPath("$.data.orderItems[?(@.id == " + itemId + ")]").isEmpty());
+    }
+
+    @Test
+    void deletedOrderIsNotServedFromCache() throws Exception {
+        getOrder().andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/orders/{id}", order.getId())).andExpect(status().isNoContent());
+
+        getOrder().andExpect(status().isNotFound());
+    }
+
+    @Test
+    void regionStatisticsArePublished() throws Exception {
+        getOrder();
+        getOrder();
+
+        double hits = meterRegistry.get("cache.gets").tag("cache", Order.CACHE_REGION).tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(hits > 0, "expected order region hits, got " + hits);
+        meterRegistry.get("cache.evictions").tag("cache", Order.ITEMS_CACHE_REGION).functionCounter();
+    }
+
+    private ResultActions getOrder() throws Exception {
+        return mockMvc.perform(get("/api/orders/{id}", order.getId()));
+    }
+}
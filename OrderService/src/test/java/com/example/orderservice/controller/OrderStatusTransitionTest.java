@@ -0,0 +1,150 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OrderRollupRepository;
+import com.example.orderservice.service.OrderRollupService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for POST /api/orders/status-transitions: chunked set-based status updates
+ * validated in the database, with their outbox events, rollups and cache kept in step.
+ */
+@SpringBootTest(properties = "orders.status-transitions.chunk-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderStatusTransitionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orderRollupRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM order_outbox");
+        ids.clear();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        for (int i = 0; i < 5; i++) {
+            ids.add(orderService.createOrder(TestOrders.order(i % 2 + 1, 2)).getId());
+        }
+    }
+
+    @Test
+    void listedOrdersMoveAndTheOthersAreRejected() throws Exception {
+        // Cached before the transition, so a stale entry would show
+        mockMvc.perform(get("/api/orders/{id}", ids.get(0))).andExpect(jsonPath("$.data.status").value("CREATED"));
+        UpdateOrderDTO delivered = new UpdateOrderDTO();
+        delivered.setStatus("DELIVERED");
+        orderService.updateOrder(ids.get(1), delivered);
+
+        transition("{\"targetStatus\":\"SHIPPED\",\"ids\":[" + ids.get(0) + "," + ids.get(1) + "," + ids.get(2) + ","
+                + ids.get(3) + "," + ids.get(0) + ",-1]}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.updated").value(3))
+                .andExpect(jsonPath("$.data.rejectedIds", containsInAnyOrder(ids.get(1).intValue(), -1)))
+                .andExpect(jsonPath("$.meta.rejected").value(2));
+
+        mockMvc.perform(get("/api/orders/{id}", ids.get(0)))
+                .andExpect(jsonPath("$.data.status").value("SHIPPED"))
+                .andExpect(jsonPath("$.data.version").value(1));
+        assertEquals(List.of("SHIPPED", "DELIVERED", "SHIPPED", "SHIPPED", "CREATED"), statuses());
+        // One status change event per order moved (the DELIVERED one comes from the PUT)
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox "
+                + "WHERE event_type = 'ORDER_STATUS_CHANGED' AND payload LIKE '%\"status\":\"SHIPPED\"%'", Long.class));
+        LocalDate today = LocalDate.now();
+        assertTrue(orderRollupService.check(today, today).isConsistent());
+    }
+
+    @Test
+    void filteredOrdersMoveInChunks() throws Exception {
+        // User 1 has orders 0, 2 and 4: more than one chunk
+        transition("{\"targetStatus\":\"PAID\",\"userId\":1,\"currentStatus\":\"CREATED\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.updated").value(3));
+        assertEquals(List.of("PAID", "CREATED", "PAID", "CREATED", "PAID"), statuses());
+
+        transition("{\"targetStatus\":\"SHIPPED\",\"createdBefore\":\"" + LocalDate.now().plusDays(1) + "T00:00:00\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.updated").value(5));
+        transition("{\"targetStatus\":\"SHIPPED\",\"userId\":2}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.updated").value(0));
+        LocalDate today = LocalDate.now();
+        assertTrue(orderRollupService.check(today, today).isConsistent());
+    }
+
+    @Test
+    void invalidTransitionsAreRejected() throws Exception {
+        transition("{\"targetStatus\":\"CREATED\",\"ids\":[1]}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("VALIDATION_ERROR"));
+        transition("{\"targetStatus\":\"DELIVERED\",\"currentStatus\":\"CREATED\"}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.details.allowedFrom[0]").value("SHIPPED"));
+        transition("{\"targetStatus\":\"SHIPPED\"}").andExpect(status().isBadRequest());
+        transition("{\"targetStatus\":\"SHIPPED\",\"ids\":[1],\"userId\":1}").andExpect(status().isBadRequest());
+        transition("{\"ids\":[1]}").andExpect(status().isBadRequest());
+        assertEquals(List.of("CREATED", "CREATED", "CREATED", "CREATED", "CREATED"), statuses());
+    }
+
+    private List<String> statuses() {
+        return ids.stream()
+                .map(id -> orderService.getOrderById(id).map(OrderDTO::getStatus).orElse(null))
+                .toList();
+    }
+
+    private ResultActions transition(String body) throws Exception {
+        return mockMvc.perform(post("/api/orders/status-transitions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
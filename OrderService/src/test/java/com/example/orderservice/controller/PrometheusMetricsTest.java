@@ -0,0 +1,72 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that the Prometheus scrape covers endpoints, downstream calls, repositories,
+ * the JDBC pool and Hibernate statistics.
+ */
+@SpringBootTest(properties = "cartservice.url=http://127.0.0.1:1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class PrometheusMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @Test
+    void scrapeCoversEndpointsClientsRepositoriesPoolAndHibernate() throws Exception {
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        OrderDTO order = orderService.createOrder(TestOrders.order(1, 2));
+
+        mockMvc.perform(get("/api/orders/" + order.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/orders/999999")).andExpect(status().isNotFound());
+        // CartService is unreachable: the enrichment degrades and the failed call is recorded
+        mockMvc.perform(get("/api/orders/" + order.getId() + "/enriched")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertContains(scrape, "http_server_requests_seconds_bucket{application=\"order-service\"");
+        assertContains(scrape, "status=\"200\",uri=\"/api/orders/{id}\"");
+        assertContains(scrape, "status=\"404\",uri=\"/api/orders/{id}\"");
+        assertContains(scrape, "downstream_calls_seconds_bucket{");
+        assertContains(scrape, "operation=\"getCartByUser\",outcome=\"ERROR\",service=\"cartservice\"");
+        assertContains(scrape, "downstream_errors_total{");
+        assertContains(scrape, "spring_data_repository_invocations_seconds_bucket{");
+        assertContains(scrape, "repository=\"OrderRepository\"");
+        assertContains(scrape, "hikaricp_connections_pending{");
+        assertContains(scrape, "hikaricp_connections_acquire_seconds_bucket{");
+        assertContains(scrape, "hibernate_sessions_open_total{");
+        assertContains(scrape, "hibernate_query_executions_total{");
+    }
+
+    private static void assertContains(String scrape, String expected) {
+        assertTrue(scrape.contains(expected), "scrape is missing " + expected);
+    }
+}
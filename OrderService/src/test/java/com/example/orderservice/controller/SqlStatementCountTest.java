@@ -0,0 +1,125 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.SqlStatementCounter;
+import com.example.orderservice.support.TestOrders;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 loading: each read endpoint must run a fixed number of SQL statements,
+ * whatever the number of orders and items involved.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private SqlStatementCounter sql;
+    private OrderDTO order;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        for (int i = 0; i < 10; i++) {
+            order = orderService.createOrder(TestOrders.order(i % 2 + 1, 4));
+        }
+        // Measure the database paths, not second-level cache hits
+        entityManagerFactory.getCache().evictAll();
+        sql = new SqlStatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    void orderDetailLoadsOrderAndItemsTogether() throws Exception {
+        sql.assertStatements(1, "GET /api/orders/{id}", () -> mockMvc.perform(get("/api/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.orderItems.length()").value(4)));
+    }
+
+    @Test
+    void orderUpdateLoadsOrderAndItemsTogether() throws Exception {
+        // Load, update, and the status-change event written to the outbox
+        sql.assertStatements(3, "PUT /api/orders/{id}", () -> mockMvc.perform(put("/api/orders/{id}", order.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PAID\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.orderItems.length()").value(4)));
+    }
+
+    @Test
+    void multiGetLoadsAllOrdersAndItemsInOneQuery() throws Exception {
+        String ids = orderRepository.findAll().stream()
+                .map(o -> o.getId().toString())
+                .collect(Collectors.joining(",")) + ",-1";
+
+        sql.assertStatements(1, "GET /api/orders?ids=", () -> mockMvc.perform(get("/api/orders").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meta.found").value(10))
+                .andExpect(jsonPath("$.data[0].order.orderItems.length()").value(4)));
+    }
+
+    @Test
+    void orderListsDoNotTouchItems() throws Exception {
+        sql.assertStatements(2, "GET /api/orders", () -> mockMvc.perform(get("/api/orders").param("limit", "5"))
+                .andExpect(status().isOk()));
+        sql.assertStatements(2, "GET /api/orders/user/{userId}", () -> mockMvc.perform(get("/api/orders/user/{userId}", 1).param("limit", "2"))
+                .andExpect(status().isOk()));
+        sql.assertStatements(1, "GET /api/orders?pagination=cursor", () -> mockMvc.perform(get("/api/orders").param("pagination", "cursor").param("limit", "5"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void itemReadsDoNotLoadTheirOrders() throws Exception {
+        Long itemId = order.getOrderItems().get(0).getId();
+
+        sql.assertStatements(1, "GET /api/order-items/{id}", () -> mockMvc.perform(get("/api/order-items/{id}", itemId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.orderId").value(order.getId())));
+        sql.assertStatements(2, "GET /api/order-items", () -> mockMvc.perform(get("/api/order-items").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(20)));
+        sql.assertStatements(2, "GET /api/order-items?orderId=", () -> mockMvc.perform(get("/api/order-items").param("orderId", order.getId().toString()).param("limit", "2"))
+                .andExpect(status().isOk()));
+        sql.assertStatements(2, "GET /api/order-items/order/{orderId}", () -> mockMvc.perform(get("/api/order-items/order/{orderId}", order.getId()).param("limit", "2"))
+                .andExpect(status().isOk()));
+        sql.assertStatements(1, "GET /api/order-items?pagination=cursor", () -> mockMvc.perform(get("/api/order-items").param("pagination", "cursor").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(20)));
+    }
+}
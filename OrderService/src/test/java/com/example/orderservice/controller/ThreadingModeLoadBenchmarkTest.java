@@ -0,0 +1,145 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.OrderServiceApplication;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.StubDownstream;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark: requests per second and p99 latency of GET /api/orders/{id}/enriched with 2000
+ * concurrent clients, on Tomcat platform threads versus the virtual-threads profile.
+ * UserService and CartService are stubs that answer after a fixed delay, so the endpoint is
+ * dominated by blocking I/O; both modes get the same downstream pool and bulkhead limits.
+ * Run with: mvn test -Pbenchmark -Dtest=ThreadingModeLoadBenchmarkTest
+ */
+@Tag("benchmark")
+class ThreadingModeLoadBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 2000);
+    private static final int DOWNSTREAM_LATENCY_MS = 50;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Duration latency = Duration.ofMillis(DOWNSTREAM_LATENCY_MS);
+        try (StubDownstream userStub = StubDownstream.start("{\"id\":1,\"name\":\"Jane\"}", latency, 0, 2 * CLIENTS);
+             StubDownstream cartStub = StubDownstream.start("[{\"id\":3}]", latency, 0, 2 * CLIENTS)) {
+            Result platform = run(false, userStub, cartStub);
+            Result virtual = run(true, userStub, cartStub);
+
+            System.out.printf("%n[benchmark] %d concurrent clients, downstream latency %d ms, %d s measured%n",
+                    CLIENTS, DOWNSTREAM_LATENCY_MS, MEASURE.toSeconds());
+            System.out.printf("[benchmark] platform threads : %s%n", platform);
+            System.out.printf("[benchmark] virtual threads  : %s (x%.1f req/s)%n", virtual, virtual.requestsPerSecond / platform.requestsPerSecond);
+        }
+    }
+
+    private Result run(boolean virtualThreads, StubDownstream userStub, StubDownstream cartStub) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .profiles(virtualThreads ? new String[]{"test", "virtual-threads"} : new String[]{"test"});
+        String[] args = {
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--userservice.url=" + userStub.url(),
+                "--cartservice.url=" + cartStub.url(),
+                // Same downstream limits in both modes: only the threading model differs
+                "--interservice.http.max-total=" + 2 * CLIENTS,
+                "--userservice.max-connections=" + CLIENTS,
+                "--cartservice.max-connections=" + CLIENTS,
+                "--userservice.bulkhead.max-concurrent-calls=" + CLIENTS,
+                "--cartservice.bulkhead.max-concurrent-calls=" + CLIENTS,
+                "--resilience.circuit-breaker.slow-call-duration-ms=60000",
+                "--enrichment.timeout-ms=30000",
+                "--enrichment.pool-size=400",
+                "--enrichment.queue-capacity=" + 2 * CLIENTS
+        };
+
+        try (ConfigurableApplicationContext context = builder.run(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            OrderDTO order = context.getBean(OrderService.class).createOrder(TestOrders.order(1, 2));
+            URI uri = URI.create("http://localhost:" + port + "/api/orders/" + order.getId() + "/enriched");
+
+            load(uri, WARMUP);
+            return load(uri, MEASURE);
+        }
+    }
+
+    /**
+     * Closed loop: every client sends its next request as soon as the previous one completes
+     */
+    private Result load(URI uri, Duration duration) throws Exception {
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> clients = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            long[] all = new long[0];
+            for (Future<long[]> client : clients) {
+                long[] latencies = client.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + latencies.length);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+            }
+            Arrays.sort(all);
+            double p99Ms = all.length == 0 ? 0 : all[(int) Math.min(all.length - 1, Math.ceil(all.length * 0.99) - 1)] / 1e6;
+            return new Result(all.length / (double) duration.toSeconds(), p99Ms, errors.get());
+        }
+    }
+
+    private record Result(double requestsPerSecond, double p99Ms, long errors) {
+        @Override
+        public String toString() {
+            return String.format("%8.1f req/s, p99 %7.1f ms, %d errors", requestsPerSecond, p99Ms, errors);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.CreateOrderItemDTO;
+import com.example.orderservice.dto.PatchOrderDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserOrderCounterRepository;
+import com.example.orderservice.service.OrderArchiveService;
+import com.example.orderservice.service.OrderItemService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.UserOrderCounterService;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the striped per-user order counters: GET /api/orders/user/{userId}/summary,
+ * per-user pagination totals, and the counters kept consistent by every order writer.
+ */
+@SpringBootTest(properties = {"orders.user-counters.stripes=4", "orders.archive.pause-ms=0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserOrderSummaryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private UserOrderCounterService userOrderCounterService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserOrderCounterRepository userOrderCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM order_items_archive");
+        jdbcTemplate.update("DELETE FROM orders_archive");
+        userOrderCounterRepository.deleteAll();
+        ids.clear();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        // Six orders of user 1, spread over the stripes, and one of user 2
+        for (int i = 0; i < 6; i++) {
+            ids.add(orderService.createOrder(TestOrders.order(1, 2)).getId());
+        }
+        orderService.createOrder(TestOrders.order(2, 2));
+    }
+
+    @Test
+    void summaryAndPaginationTotalsComeFromTheCounters() throws Exception {
+        setStatus(ids.get(0), "PAID");
+        setStatus(ids.get(1), "PAID");
+
+        mockMvc.perform(get("/api/orders/user/{userId}/summary", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.orderCount").value(6))
+                .andExpect(jsonPath("$.data.totalAmount").value(120.00))
+                .andExpect(jsonPath("$.data.byStatus[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.data.byStatus[0].orderCount").value(4))
+                .andExpect(jsonPath("$.data.byStatus[1].status").value("PAID"))
+                .andExpect(jsonPath("$.data.byStatus[1].orderCount").value(2));
+        mockMvc.perform(get("/api/orders/user/{userId}/summary", 99))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.orderCount").value(0));
+
+        mockMvc.perform(get("/api/orders/user/{userId}", 1).param("limit", "4"))
+                .andExpect(jsonPath("$.data.length()").value(4))
+                .andExpect(jsonPath("$.meta.total").value(6))
+                .andExpect(jsonPath("$.meta.totalPages").value(2));
+        mockMvc.perform(get("/api/orders").param("userId", "1").param("status", "PAID").param("limit", "1"))
+                .andExpect(jsonPath("$.meta.total").value(2));
+        mockMvc.perform(get("/api/orders/user/{userId}", 1)
+                        .param("pagination", "cursor").param("limit", "2").param("includeTotal", "true"))
+                .andExpect(jsonPath("$.meta.total").value(6));
+        assertTrue(userOrderCounterService.check().isConsistent());
+    }
+
+    @Test
+    void everyOrderWriterKeepsTheCountersConsistent() throws Exception {
+        PatchOrderDTO patch = new PatchOrderDTO();
+        patch.setVersion(0L);
+        patch.setStatus("PAID");
+        patch.setTotalAmount(new BigDecimal("30.00"));
+        orderService.patchOrder(ids.get(0), patch);
+
+        CreateOrderItemDTO item = new CreateOrderItemDTO();
+        item.setOrderId(ids.get(1));
+        item.setProductId("PROD-X");
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("3.00"));
+        orderItemService.createOrderItem(item);
+
+        mockMvc.perform(post("/api/orders/status-transitions")
+                        .contentType("application/json")
+                        .content("{\"targetStatus\":\"SHIPPED\",\"ids\":[" + ids.get(2) + "," + ids.get(3) + "]}"))
+                .andExpect(status().isOk());
+        assertTrue(userOrderCounterService.check().isConsistent());
+
+        // The latest order leaves its row: the row's latest order date falls back to the one before
+        orderService.deleteOrder(ids.get(5));
+        assertTrue(userOrderCounterService.check().isConsistent());
+
+        setStatus(ids.get(2), "DELIVERED");
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusYears(2)), ids.get(2));
+        userOrderCounterService.rebuild();
+        assertEquals(1, orderArchiveService.archiveCreatedBefore(LocalDateTime.now().minusDays(365)));
+        assertTrue(userOrderCounterService.check().isConsistent());
+
+        // 5 orders left, one of them archived: 20 + 30 (patched) + 23 (item added) + 3 x 20
+        mockMvc.perform(get("/api/orders/user/{userId}/summary", 1))
+                .andExpect(jsonPath("$.data.orderCount").value(5))
+                .andExpect(jsonPath("$.data.archivedOrderCount").value(1))
+                .andExpect(jsonPath("$.data.totalAmount").value(113.00));
+        // Listings only see the orders still in the orders table
+        mockMvc.perform(get("/api/orders/user/{userId}", 1)).andExpect(jsonPath("$.meta.total").value(4));
+    }
+
+    @Test
+    void rebuildRepairsDriftedCounters() throws Exception {
+        jdbcTemplate.update("UPDATE user_order_counters SET order_count = order_count + 1 WHERE user_id = 1");
+        assertFalse(userOrderCounterService.check().isConsistent());
+        mockMvc.perform(get("/api/analytics/user-counters/consistency"))
+                .andExpect(jsonPath("$.meta.consistent").value(false));
+
+        mockMvc.perform(post("/api/analytics/user-counters/rebuild")).andExpect(status().isOk());
+
+        assertTrue(userOrderCounterService.check().isConsistent());
+        mockMvc.perform(get("/api/orders/user/{userId}/summary", 1)).andExpect(jsonPath("$.data.orderCount").value(6));
+    }
+
+    private void setStatus(Long id, String status) {
+        UpdateOrderDTO update = new UpdateOrderDTO();
+        update.setStatus(status);
+        orderService.updateOrder(id, update);
+    }
+}
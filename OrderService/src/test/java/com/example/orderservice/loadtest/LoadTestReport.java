@@ -0,0 +1,131 @@
+package com.example.orderservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and error counts of a load test run, written as a JSON report.
+ * Latencies are recorded in microseconds with 3 significant digits; each endpoint also carries its
+ * full histogram (compressed, base64) so two reports can be compared with the HdrHistogram tools.
+ */
+class LoadTestReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final List<Double> PERCENTILES = List.of(50.0, 90.0, 99.0, 99.9);
+
+    private final Map<String, Stats> endpoints = new LinkedHashMap<>();
+
+    LoadTestReport(List<String> endpointNames) {
+        endpointNames.forEach(name -> endpoints.put(name, new Stats()));
+    }
+
+    /**
+     * Record one response (or failure) of an endpoint
+     */
+    void record(String endpoint, long latencyNanos, boolean success) {
+        Stats stats = endpoints.get(endpoint);
+        stats.latencies.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Forget everything recorded so far, e.g. at the end of the warmup
+     */
+    void reset() {
+        endpoints.values().forEach(stats -> {
+            stats.latencies.reset();
+            stats.errors.reset();
+        });
+    }
+
+    /**
+     * Build the report for a measurement window of the given length
+     */
+    Map<String, Object> toMap(Map<String, Object> config, Duration measured) {
+        Map<String, Object> endpointReports = new LinkedHashMap<>();
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Stats> entry : endpoints.entrySet()) {
+            Histogram latencies = entry.getValue().latencies.copy();
+            long errors = entry.getValue().errors.sum();
+            endpointReports.put(entry.getKey(), summary(latencies, errors, measured, true));
+            total.add(latencies);
+            totalErrors += errors;
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("config", config);
+        report.put("total", summary(total, totalErrors, measured, false));
+        report.put("endpoints", endpointReports);
+        return report;
+    }
+
+    void write(Path path, Map<String, Object> report) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    private static Map<String, Object> summary(Histogram latencies, long errors, Duration measured, boolean withHistogram) {
+        Map<String, Object> latencyMs = new LinkedHashMap<>();
+        latencyMs.put("mean", round(latencies.getMean() / 1000.0));
+        for (double percentile : PERCENTILES) {
+            latencyMs.put("p" + formatPercentile(percentile), round(latencies.getValueAtPercentile(percentile) / 1000.0));
+        }
+        latencyMs.put("max", round(latencies.getMaxValue() / 1000.0));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", latencies.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", round(latencies.getTotalCount() / (measured.toMillis() / 1000.0)));
+        summary.put("latencyMs", latencyMs);
+        if (withHistogram) {
+            summary.put("histogram", encode(latencies));
+        }
+        return summary;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    /**
+     * 50.0 -> "50", 99.9 -> "999"
+     */
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? String.valueOf((long) percentile)
+                : String.valueOf(percentile).replace(".", "");
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static final class Stats {
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.orderservice.loadtest;
+
+import com.example.orderservice.OrderServiceApplication;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.support.StubDownstream;
+import com.example.orderservice.support.TestOrders;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load test: boots OrderService on a random port against a local database and stub
+ * UserService/CartService servers, then sends a weighted mix of create, list, detail, enriched
+ * and update requests at a fixed arrival rate. Requests are scheduled open-loop and latency is
+ * measured from the scheduled start, so a slow server can't lower the offered load and hide its
+ * own queueing. Writes per-endpoint throughput, p50/p90/p99/p999 and histograms to a JSON report.
+ * <p>
+ * Run with: mvn test -Pbenchmark -Dtest=OrderServiceLoadTest [-Dloadtest.rate=200 ...]
+ * <ul>
+ *   <li>loadtest.rate: requests per second across all endpoints (100)</li>
+ *   <li>loadtest.warmup-seconds / loadtest.duration-seconds: excluded warmup, then measured window (10 / 30)</li>
+ *   <li>loadtest.mix: relative weight of each endpoint (create=10,list=25,detail=35,enriched=15,update=15)</li>
+ *   <li>loadtest.seed-orders: orders created before the run for reads and updates (500)</li>
+ *   <li>loadtest.downstream.latency-ms / loadtest.downstream.error-rate: stub behaviour (20 / 0.01)</li>
+ *   <li>loadtest.datasource.url, .username, .password: a MySQL database to use instead of in-memory H2.
+ *       The schema is dropped and recreated, so only point it at a disposable database.</li>
+ *   <li>loadtest.report: report path (target/loadtest/order-service.json)</li>
+ * </ul>
+ */
+@Tag("benchmark")
+class OrderServiceLoadTest {
+
+    private static final int RATE = Integer.getInteger("loadtest.rate", 100);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+    private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30));
+    private static final String MIX = System.getProperty("loadtest.mix", "create=10,list=25,detail=35,enriched=15,update=15");
+    private static final int SEED_ORDERS = Integer.getInteger("loadtest.seed-orders", 500);
+    private static final int DOWNSTREAM_LATENCY_MS = Integer.getInteger("loadtest.downstream.latency-ms", 20);
+    private static final double DOWNSTREAM_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.downstream.error-rate", "0.01"));
+    private static final String DATASOURCE_URL = System.getProperty("loadtest.datasource.url");
+    private static final Path REPORT = Path.of(System.getProperty("loadtest.report", "target/loadtest/order-service.json"));
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int USERS = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The endpoints driven by the test, keyed by their name in loadtest.mix and in the report
+     */
+    private enum Endpoint {
+        CREATE, LIST, DETAIL, ENRICHED, UPDATE;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    @Test
+    void runLoadTest() throws Exception {
+        Map<Endpoint, Integer> mix = parseMix(MIX);
+        Duration downstreamLatency = Duration.ofMillis(DOWNSTREAM_LATENCY_MS);
+        // Enough downstream connections for every request in flight during a 1 s stall
+        int maxInFlight = Math.max(100, RATE);
+
+        try (StubDownstream userService = StubDownstream.start("{\"id\":1,\"name\":\"Jane\"}", downstreamLatency, DOWNSTREAM_ERROR_RATE, maxInFlight);
+             StubDownstream cartService = StubDownstream.start("[{\"id\":3}]", downstreamLatency, DOWNSTREAM_ERROR_RATE, maxInFlight);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                     .profiles("test")
+                     .run(applicationArgs(userService, cartService))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://127.0.0.1:" + port + "/api/orders");
+
+            OrderService orderService = context.getBean(OrderService.class);
+            List<Long> orderIds = new ArrayList<>();
+            for (int i = 0; i < SEED_ORDERS; i++) {
+                orderIds.add(orderService.createOrder(TestOrders.order(i % USERS + 1, 3)).getId());
+            }
+
+            LoadTestReport report = new LoadTestReport(Arrays.stream(Endpoint.values()).map(Endpoint::key).toList());
+            try (HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(REQUEST_TIMEOUT)
+                    .build()) {
+                drive(http, base, mix, orderIds, report, WARMUP);
+                report.reset();
+                drive(http, base, mix, orderIds, report, MEASURE);
+            }
+
+            Map<String, Object> result = report.toMap(config(mix), MEASURE);
+            report.write(REPORT, result);
+            print(result);
+        }
+    }
+
+    /**
+     * Send requests at the configured rate for the given duration, then wait for the ones in flight
+     */
+    private void drive(HttpClient http, URI base, Map<Endpoint, Integer> mix, List<Long> orderIds,
+                       LoadTestReport report, Duration duration) {
+        Endpoint[] weighted = mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Endpoint[]::new);
+        long intervalNanos = 1_000_000_000L / RATE;
+        long requests = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long scheduled = start + i * intervalNanos;
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+                HttpRequest request = request(endpoint, base, orderIds.get(random.nextInt(orderIds.size())), random);
+                executor.submit(() -> {
+                    boolean success;
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        success = response.statusCode() < 400;
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    report.record(endpoint.key(), System.nanoTime() - scheduled, success);
+                });
+            }
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint, URI base, long orderId, ThreadLocalRandom random) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(REQUEST_TIMEOUT);
+        try {
+            return switch (endpoint) {
+                case CREATE -> builder.uri(base)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(
+                                objectMapper.writeValueAsBytes(TestOrders.order(random.nextInt(USERS) + 1, 3))))
+                        .build();
+                case LIST -> builder.uri(URI.create(base + "?page=" + (random.nextInt(5) + 1) + "&limit=20")).GET().build();
+                case DETAIL -> builder.uri(URI.create(base + "/" + orderId)).GET().build();
+                case ENRICHED -> builder.uri(URI.create(base + "/" + orderId + "/enriched")).GET().build();
+                case UPDATE -> builder.uri(URI.create(base + "/" + orderId))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(
+                                "{\"shippingAddress\":\"" + random.nextInt(1, 200) + " rue de Rivoli, Paris\"}"))
+                        .build();
+            };
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not build " + endpoint.key() + " request", e);
+        }
+    }
+
+    private String[] applicationArgs(StubDownstream userService, StubDownstream cartService) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--userservice.url=" + userService.url(),
+                "--cartservice.url=" + cartService.url()));
+        if (DATASOURCE_URL != null) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + DATASOURCE_URL,
+                    "--spring.datasource.username=" + System.getProperty("loadtest.datasource.username", "root"),
+                    "--spring.datasource.password=" + System.getProperty("loadtest.datasource.password", ""),
+                    "--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect"));
+        }
+        return args.toArray(String[]::new);
+    }
+
+    private Map<String, Object> config(Map<Endpoint, Integer> mix) {
+        Map<String, Object> weights = new LinkedHashMap<>();
+        mix.forEach((endpoint, weight) -> weights.put(endpoint.key(), weight));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("ratePerSecond", RATE);
+        config.put("warmupSeconds", WARMUP.toSeconds());
+        config.put("durationSeconds", MEASURE.toSeconds());
+        config.put("mix", weights);
+        config.put("seedOrders", SEED_ORDERS);
+        config.put("downstreamLatencyMs", DOWNSTREAM_LATENCY_MS);
+        config.put("downstreamErrorRate", DOWNSTREAM_ERROR_RATE);
+        config.put("database", DATASOURCE_URL != null ? "mysql" : "h2");
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        return config;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void print(Map<String, Object> result) {
+        System.out.printf("%n[loadtest] %d req/s for %d s, report written to %s%n", RATE, MEASURE.toSeconds(), REPORT.toAbsolutePath());
+        System.out.printf("[loadtest] %-9s %9s %7s %9s %9s %9s %9s%n", "endpoint", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) result.get("endpoints"));
+        rows.put("total", result.get("total"));
+        rows.forEach((name, value) -> {
+            Map<String, Object> summary = (Map<String, Object>) value;
+            Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMs");
+            System.out.printf("[loadtest] %-9s %9.1f %7d %9.1f %9.1f %9.1f %9.1f%n", name,
+                    summary.get("throughputPerSecond"), summary.get("errors"),
+                    latency.get("p50"), latency.get("p99"), latency.get("p999"), latency.get("max"));
+        });
+    }
+
+    /**
+     * "create=10,list=25" -> {CREATE=10, LIST=25}
+     */
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(entry[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no endpoint with a positive weight: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OrderRollupRepository;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the single-statement order delete and for the chunked archival of old orders:
+ * rows moved with their items, cache entries dropped, rollups unchanged.
+ */
+@SpringBootTest(properties = {"orders.archive.chunk-size=2", "orders.archive.pause-ms=0"})
+@ActiveProfiles("test")
+class OrderArchiveTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orderRollupRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM order_items_archive");
+        jdbcTemplate.update("DELETE FROM orders_archive");
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void deleteRemovesTheOrderAndItsCachedItems() {
+        OrderDTO order = orderService.createOrder(TestOrders.order(1, 3));
+        Long itemId = order.getOrderItems().get(0).getId();
+        // Cached before the delete, so a stale entry would show
+        assertTrue(orderService.getOrderById(order.getId()).isPresent());
+        assertTrue(orderItemService.getOrderItemById(itemId).isPresent());
+
+        assertTrue(orderService.deleteOrder(order.getId()));
+
+        assertFalse(orderService.getOrderById(order.getId()).isPresent());
+        assertFalse(orderItemService.getOrderItemById(itemId).isPresent());
+        assertEquals(0, count("order_items"));
+        assertFalse(orderService.deleteOrder(order.getId()));
+    }
+
+    @Test
+    void oldOrdersInAFinalStatusMoveToTheArchiveInChunks() {
+        List<Long> old = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            old.add(createOrder(i % 2 == 0 ? "DELIVERED" : "CANCELLED"));
+        }
+        Long oldShipped = createOrder("SHIPPED");
+        Long recent = createOrder("DELIVERED");
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(2);
+        for (Long id : old) {
+            backdate(id, longAgo);
+        }
+        backdate(oldShipped, longAgo);
+        Long itemId = orderService.getOrderById(old.get(0)).map(OrderDTO::getOrderItems).orElseThrow().get(0).getId();
+        orderItemService.getOrderItemById(itemId);
+        orderRollupService.rebuild();
+        LocalDate from = longAgo.toLocalDate();
+        LocalDate to = LocalDate.now();
+        assertTrue(orderRollupService.check(from, to).isConsistent());
+
+        assertEquals(5, orderArchiveService.archiveCreatedBefore(LocalDateTime.now().minusDays(365)));
+
+        assertEquals(5, count("orders_archive"));
+        assertEquals(10, count("order_items_archive"));
+        assertEquals(2, count("orders"));
+        assertEquals(4, count("order_items"));
+        for (Long id : old) {
+            assertFalse(orderService.getOrderById(id).isPresent());
+        }
+        assertFalse(orderItemService.getOrderItemById(itemId).isPresent());
+        assertEquals(List.of(oldShipped, recent), orderRepository.findAll().stream().map(Order::getId).sorted().toList());
+        assertEquals("CANCELLED", jdbcTemplate.queryForObject("SELECT status FROM orders_archive WHERE id = ?", String.class, old.get(1)));
+        // Archived orders still count in the rollups
+        assertTrue(orderRollupService.check(from, to).isConsistent());
+        assertEquals(0, orderArchiveService.archiveCreatedBefore(LocalDateTime.now().minusDays(365)));
+    }
+
+    private Long createOrder(String status) {
+        OrderDTO order = orderService.createOrder(TestOrders.order(1, 2));
+        UpdateOrderDTO update = new UpdateOrderDTO();
+        update.setStatus(status);
+        orderService.updateOrder(order.getId(), update);
+        return order.getId();
+    }
+
+    private void backdate(Long orderId, LocalDateTime createdAt) {
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), orderId);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.BatchOrderResultDTO;
+import com.example.orderservice.dto.CreateOrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark: orders per second through POST /api/orders (one createOrder per order)
+ * versus POST /api/orders/batch (chunked, JDBC-batched createOrdersBatch).
+ * Run with: mvn test -Pbenchmark -Dtest=OrderBatchBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderBatchBenchmarkTest {
+
+    private static final int ORDERS = 2000;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @Test
+    void compareSingleCreateWithBatchCreate() {
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        List<CreateOrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(TestOrders.order(i % 100 + 1, ITEMS_PER_ORDER));
+        }
+
+        // Warm up both paths
+        runSingle(orders.subList(0, 200));
+        runBatch(orders.subList(0, 200));
+        orderRepository.deleteAll();
+
+        double single = runSingle(orders);
+        orderRepository.deleteAll();
+        double batch = runBatch(orders);
+
+        System.out.printf("%n[benchmark] %d orders x %d items%n", ORDERS, ITEMS_PER_ORDER);
+        System.out.printf("[benchmark] single create : %10.1f orders/s%n", single);
+        System.out.printf("[benchmark] batch create  : %10.1f orders/s (x%.1f)%n", batch, batch / single);
+    }
+
+    private double runSingle(List<CreateOrderDTO> orders) {
+        long start = System.nanoTime();
+        for (CreateOrderDTO order : orders) {
+            orderService.createOrder(order);
+        }
+        return orders.size() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double runBatch(List<CreateOrderDTO> orders) {
+        long created = 0;
+        long start = System.nanoTime();
+        for (int from = 0; from < orders.size(); from += BATCH_SIZE) {
+            created += orderService.createOrdersBatch(orders.subList(from, Math.min(from + BATCH_SIZE, orders.size())))
+                    .stream()
+                    .filter(result -> BatchOrderResultDTO.CREATED.equals(result.getStatus()))
+                    .count();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(orders.size(), created, "every order of the batch is created");
+        return created / elapsedSeconds;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.BatchOrderResultDTO;
+import com.example.orderservice.dto.CreateOrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.support.TestOrders;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for batch order creation: per-order results and JDBC batching of the INSERTs.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderBatchCreationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenAnswer(invocation -> !Integer.valueOf(999).equals(invocation.getArgument(0)));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void insertsAreGroupedIntoJdbcBatches() {
+        List<CreateOrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            orders.add(TestOrders.order(i % 10 + 1, 2));
+        }
+
+        List<BatchOrderResultDTO> results = orderService.createOrdersBatch(orders);
+
+        assertEquals(120, results.size());
+        assertTrue(results.stream().allMatch(r -> BatchOrderResultDTO.CREATED.equals(r.getStatus())));
+        assertEquals(120, orderRepository.count());
+        assertEquals(360, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 40,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " prepared statements");
+    }
+
+    @Test
+    void invalidOrdersAreRejectedIndividuallyInRequestOrder() {
+        CreateOrderDTO missingAddress = TestOrders.order(1, 1);
+        missingAddress.setShippingAddress(null);
+        List<CreateOrderDTO> orders = List.of(TestOrders.order(1, 1), missingAddress, TestOrders.order(999, 1), TestOrders.order(2, 0));
+
+        List<BatchOrderResultDTO> results = orderService.createOrdersBatch(orders);
+
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BatchOrderResultDTO::getIndex).toList());
+        assertEquals(BatchOrderResultDTO.CREATED, results.get(0).getStatus());
+        assertEquals(BatchOrderResultDTO.REJECTED, results.get(1).getStatus());
+        assertTrue(results.get(1).getError().contains("shippingAddress"));
+        assertEquals(BatchOrderResultDTO.REJECTED, results.get(2).getStatus());
+        assertEquals(BatchOrderResultDTO.CREATED, results.get(3).getStatus());
+        assertNotNull(results.get(3).getOrder().getId());
+        assertEquals(2, orderRepository.count());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserOrderCounterRepository;
+import com.example.orderservice.support.TestOrders;
+import com.example.orderservice.util.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for keyset (cursor) pagination of orders and order items.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderCursorPaginationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserOrderCounterRepository userOrderCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        userOrderCounterRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        for (int i = 0; i < 25; i++) {
+            orderService.createOrder(TestOrders.order(i % 2 + 1, 1));
+        }
+        // Give groups of orders identical timestamps so the id tie-breaker is exercised
+        jdbcTemplate.update("UPDATE orders SET created_at = DATEADD('SECOND', MOD(id, 4), TIMESTAMP '2025-01-01 00:00:00')");
+        jdbcTemplate.update("UPDATE order_items SET created_at = DATEADD('SECOND', MOD(id, 3), TIMESTAMP '2025-01-01 00:00:00')");
+    }
+
+    @Test
+    void walksAllOrdersForwardAndBackwardWithoutGapsOrDuplicates() {
+        List<Long> expected = orderRepository.findAll().stream()
+                .sorted(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+
+        List<Long> forward = new ArrayList<>();
+        List<String> prevCursors = new ArrayList<>();
+        CursorPage<OrderDTO> page = orderService.getOrdersByCursor(null, 10, null, null, false);
+        assertNull(page.getPrevCursor());
+        while (true) {
+            page.getContent().forEach(order -> forward.add(order.getId()));
+            prevCursors.add(page.getPrevCursor());
+            if (page.getNextCursor() == null) {
+                break;
+            }
+            page = orderService.getOrdersByCursor(page.getNextCursor(), 10, null, null, false);
+        }
+        assertEquals(expected, forward);
+        assertEquals(3, prevCursors.size());
+
+        // Going back from the last page returns the previous pages in the same order
+        CursorPage<OrderDTO> back = orderService.getOrdersByCursor(prevCursors.get(2), 10, null, null, false);
+        assertEquals(expected.subList(10, 20), back.getContent().stream().map(OrderDTO::getId).toList());
+        back = orderService.getOrdersByCursor(back.getPrevCursor(), 10, null, null, false);
+        assertEquals(expected.subList(0, 10), back.getContent().stream().map(OrderDTO::getId).toList());
+        assertNull(back.getPrevCursor());
+    }
+
+    @Test
+    void filtersByUserAndOnlyCountsWhenAsked() {
+        CursorPage<OrderDTO> page = orderService.getOrdersByCursor(null, 100, 1, null, false);
+        assertNull(page.getTotal());
+        assertEquals(13, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(order -> order.getUserId() == 1));
+        assertNull(page.getNextCursor());
+
+        CursorPage<OrderDTO> counted = orderService.getOrdersByCursor(null, 5, 2, "CREATED", true);
+        assertEquals(12L, counted.getTotal());
+        assertEquals(5, counted.getContent().size());
+    }
+
+    @Test
+    void walksOrderItemsForward() {
+        List<Long> seen = new ArrayList<>();
+        CursorPage<OrderItemDTO> page = orderItemService.getOrderItemsByCursor(null, 7, null, true);
+        assertEquals(25L, page.getTotal());
+        while (true) {
+            page.getContent().forEach(item -> seen.add(item.getId()));
+            if (page.getNextCursor() == null) {
+                break;
+            }
+            page = orderItemService.getOrderItemsByCursor(page.getNextCursor(), 7, null, false);
+        }
+        assertEquals(25, seen.size());
+        assertEquals(25, seen.stream().distinct().count());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersByCursor("not-a-cursor", 10, null, null, false));
+    }
+}
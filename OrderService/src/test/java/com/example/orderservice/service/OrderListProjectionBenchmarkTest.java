@@ -0,0 +1,117 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.CreateOrderDTO;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark: heap allocation and latency per 100-row order list page, loading managed
+ * Order entities (previous read path) versus selecting OrderSummary projections.
+ * Run with: mvn test -Pbenchmark -Dtest=OrderListProjectionBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderListProjectionBenchmarkTest {
+
+    private static final int ORDERS = 5000;
+    private static final int PAGE_SIZE = 100;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @Test
+    void compareEntityPagesWithProjectionPages() {
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        orderRepository.deleteAll();
+        List<CreateOrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(TestOrders.order(i % 100 + 1, 2));
+        }
+        orderService.createOrdersBatch(orders);
+
+        int pages = ORDERS / PAGE_SIZE;
+        IntFunction<Page<OrderDTO>> entityPage = page -> orderRepository.findAll(PageRequest.of(page, PAGE_SIZE))
+                .map(OrderListProjectionBenchmarkTest::toDTO);
+        IntFunction<Page<OrderDTO>> projectionPage = page -> orderService.getAllOrders(page + 1, PAGE_SIZE, null, null);
+
+        // Warm up both paths
+        run(entityPage, pages);
+        run(projectionPage, pages);
+
+        long[] entity = {0, 0};
+        long[] projection = {0, 0};
+        for (int round = 0; round < ROUNDS; round++) {
+            accumulate(entity, run(entityPage, pages));
+            accumulate(projection, run(projectionPage, pages));
+        }
+        int measuredPages = pages * ROUNDS;
+
+        System.out.printf("%n[benchmark] %d orders, %d-row pages, %d pages per path%n", ORDERS, PAGE_SIZE, measuredPages);
+        System.out.printf("[benchmark] entities    : %8.1f KB/page %8.3f ms/page%n",
+                entity[0] / 1024.0 / measuredPages, entity[1] / 1e6 / measuredPages);
+        System.out.printf("[benchmark] projections : %8.1f KB/page %8.3f ms/page (alloc x%.2f, latency x%.2f)%n",
+                projection[0] / 1024.0 / measuredPages, projection[1] / 1e6 / measuredPages,
+                (double) entity[0] / projection[0], (double) entity[1] / projection[1]);
+    }
+
+    /**
+     * Fetch every page once; returns {allocated bytes, elapsed nanos} for the calling thread
+     */
+    private long[] run(IntFunction<Page<OrderDTO>> fetch, int pages) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int page = 0; page < pages; page++) {
+            fetch.apply(page);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new long[]{threads.getThreadAllocatedBytes(threadId) - allocatedBefore, elapsed};
+    }
+
+    private static void accumulate(long[] total, long[] sample) {
+        total[0] += sample[0];
+        total[1] += sample[1];
+    }
+
+    private static OrderDTO toDTO(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setUserId(order.getUserId());
+        dto.setShippingAddress(order.getShippingAddress());
+        dto.setBillingAddress(order.getBillingAddress());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setStatus(order.getStatus());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setUpdatedAt(order.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserOrderCounterRepository;
+import com.example.orderservice.support.TestOrders;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that order list views read summary projections instead of managed entities.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderListProjectionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserOrderCounterRepository userOrderCounterRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        userOrderCounterRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        for (int i = 0; i < 30; i++) {
+            orderService.createOrder(TestOrders.order(i % 3 + 1, 2));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listViewsLoadNoEntities() {
+        Page<OrderDTO> all = orderService.getAllOrders(1, 20, null, null);
+        Page<OrderDTO> byUser = orderService.getAllOrders(1, 20, 2, null);
+        Page<OrderDTO> byStatus = orderService.getAllOrders(2, 20, null, "CREATED");
+        Page<OrderDTO> byUserAndStatus = orderService.getAllOrders(1, 20, 3, "CREATED");
+        Page<OrderDTO> userOrders = orderService.getOrdersByUserId(1, 1, 5);
+
+        assertEquals(20, all.getContent().size());
+        assertEquals(30, all.getTotalElements());
+        assertEquals(10, byUser.getTotalElements());
+        assertTrue(byUser.getContent().stream().allMatch(order -> order.getUserId() == 2));
+        assertEquals(10, byStatus.getContent().size());
+        assertEquals(10, byUserAndStatus.getTotalElements());
+        assertEquals(5, userOrders.getContent().size());
+        assertEquals(10, userOrders.getTotalElements());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getFlushCount());
+    }
+
+    @Test
+    void summariesCarryAllScalarColumns() {
+        OrderDTO order = orderService.getAllOrders(1, 1, null, null).getContent().get(0);
+
+        assertNotNull(order.getId());
+        assertTrue(order.getOrderNumber().startsWith("ORD-"));
+        assertNotNull(order.getUserId());
+        assertNotNull(order.getShippingAddress());
+        assertNotNull(order.getBillingAddress());
+        assertNotNull(order.getTotalAmount());
+        assertEquals("CREATED", order.getStatus());
+        assertNotNull(order.getCreatedAt());
+        assertNotNull(order.getUpdatedAt());
+        assertNull(order.getOrderItems());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.CreateOrderDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Benchmark: orders per second fetched by a loop of GET /api/orders/{id}
+ * versus POST /api/orders/lookup with the same IDs.
+ * Run with: mvn test -Pbenchmark -Dtest=OrderMultiGetBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderMultiGetBenchmarkTest {
+
+    private static final int ORDERS = 2000;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int IDS_PER_BATCH = 500;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @Test
+    void comparePerIdLoopWithMultiGet() throws Exception {
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+        orderRepository.deleteAll();
+        List<CreateOrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(TestOrders.order(i % 100 + 1, ITEMS_PER_ORDER));
+        }
+        orderService.createOrdersBatch(orders);
+
+        List<Long> ids = orderRepository.findAll().stream().map(Order::getId).collect(Collectors.toList());
+        Collections.shuffle(ids, new Random(42));
+        List<Long> batch = ids.subList(0, IDS_PER_BATCH);
+
+        // Warm up both paths
+        runLoop(batch);
+        runMultiGet(batch);
+
+        long loopNanos = 0;
+        long multiGetNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            loopNanos += runLoop(batch);
+            multiGetNanos += runMultiGet(batch);
+        }
+        double loop = IDS_PER_BATCH * ROUNDS / (loopNanos / 1e9);
+        double multiGet = IDS_PER_BATCH * ROUNDS / (multiGetNanos / 1e9);
+
+        System.out.printf("%n[benchmark] %d IDs per batch, %d items per order, %d rounds%n", IDS_PER_BATCH, ITEMS_PER_ORDER, ROUNDS);
+        System.out.printf("[benchmark] GET /{id} loop   : %10.1f orders/s%n", loop);
+        System.out.printf("[benchmark] POST /lookup     : %10.1f orders/s (x%.1f)%n", multiGet, multiGet / loop);
+    }
+
+    private long runLoop(List<Long> ids) throws Exception {
+        long start = System.nanoTime();
+        for (Long id : ids) {
+            mockMvc.perform(get("/api/orders/{id}", id)).andExpect(status().isOk());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runMultiGet(List<Long> ids) throws Exception {
+        String body = ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+        long start = System.nanoTime();
+        mockMvc.perform(post("/api/orders/lookup").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        return System.nanoTime() - start;
+    }
+}
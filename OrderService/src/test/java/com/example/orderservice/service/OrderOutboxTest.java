@@ -0,0 +1,172 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderOutboxEvent;
+import com.example.orderservice.repository.OrderOutboxRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.support.RecordingOrderEventPublisher;
+import com.example.orderservice.support.RecordingOrderEventPublisher.Published;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the order outbox: events are written with the order change and published
+ * by the relay in order for each order, outside any transaction, against an in-memory broker.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderOutboxTest {
+
+    @TestConfiguration
+    static class PublisherConfig {
+        @Bean
+        @Primary
+        RecordingOrderEventPublisher recordingOrderEventPublisher() {
+            return new RecordingOrderEventPublisher();
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutboxRelay relay;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RecordingOrderEventPublisher publisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orderOutboxRepository.deleteAll();
+        publisher.reset();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void writesEventsWithTheChangeAndPublishesThemInOrder() {
+        OrderDTO order = orderService.createOrder(TestOrders.order(1, 2));
+        orderService.updateOrder(order.getId(), update("PAID", null));
+        // No status change, no event
+        orderService.updateOrder(order.getId(), update(null, "2 rue de Rivoli, Paris"));
+        assertTrue(orderService.deleteOrder(order.getId()));
+
+        assertEquals(3, orderOutboxRepository.count());
+        assertTrue(publisher.published().isEmpty(), "the request path must not publish");
+
+        assertEquals(3, relay.relayPending());
+        List<Published> published = publisher.published();
+        assertEquals(List.of(OrderOutboxEvent.Type.ORDER_CREATED, OrderOutboxEvent.Type.ORDER_STATUS_CHANGED,
+                        OrderOutboxEvent.Type.ORDER_DELETED),
+                published.stream().map(Published::type).toList());
+        assertTrue(published.stream().allMatch(event -> event.orderId().equals(order.getId())));
+        assertTrue(published.get(1).payload().contains("\"status\":\"PAID\""));
+        assertTrue(published.get(1).payload().contains("\"previousStatus\":\"CREATED\""));
+        assertTrue(published.stream().noneMatch(Published::inTransaction), "published inside a transaction");
+        assertEquals(0, orderOutboxRepository.count());
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoEvent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.createOrder(TestOrders.order(1, 1));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, orderRepository.count());
+        assertEquals(0, orderOutboxRepository.count());
+    }
+
+    @Test
+    void batchCreationWritesOneEventPerOrder() {
+        orderService.createOrdersBatch(List.of(TestOrders.order(1, 1), TestOrders.order(2, 1), TestOrders.order(3, 1)));
+
+        assertEquals(3, relay.relayPending());
+        assertEquals(orderRepository.findAll().stream().map(Order::getId).sorted().toList(),
+                publisher.published().stream().map(Published::orderId).sorted().toList());
+    }
+
+    @Test
+    void failedEventHoldsBackLaterEventsOfItsOrderOnly() {
+        OrderDTO held = orderService.createOrder(TestOrders.order(1, 1));
+        orderService.updateOrder(held.getId(), update("PAID", null));
+        OrderDTO other = orderService.createOrder(TestOrders.order(2, 1));
+
+        publisher.rejectWhen(event -> event.getOrderId().equals(held.getId())
+                && event.getEventType() == OrderOutboxEvent.Type.ORDER_CREATED);
+        assertEquals(1, relay.relayPending());
+        assertEquals(List.of(other.getId()), publisher.published().stream().map(Published::orderId).toList());
+        assertEquals(2, orderOutboxRepository.count());
+
+        publisher.rejectWhen(event -> false);
+        assertEquals(2, relay.relayPending());
+        List<Published> published = publisher.published();
+        assertEquals(List.of(OrderOutboxEvent.Type.ORDER_CREATED, OrderOutboxEvent.Type.ORDER_STATUS_CHANGED),
+                published.subList(1, 3).stream().map(Published::type).toList());
+        assertEquals(0, orderOutboxRepository.count());
+    }
+
+    @Test
+    void eventsLeasedByAnotherRelayHoldBackLaterEventsOfTheirOrder() {
+        OrderDTO leased = orderService.createOrder(TestOrders.order(1, 1));
+        orderService.updateOrder(leased.getId(), update("PAID", null));
+        OrderDTO other = orderService.createOrder(TestOrders.order(2, 1));
+
+        // Another relay is publishing the creation of the first order
+        jdbcTemplate.update("UPDATE order_outbox SET claimed_until = ? WHERE order_id = ? AND event_type = 'ORDER_CREATED'",
+                Timestamp.valueOf(LocalDateTime.now().plusMinutes(1)), leased.getId());
+        assertEquals(1, relay.relayPending());
+        assertEquals(List.of(other.getId()), publisher.published().stream().map(Published::orderId).toList());
+
+        // Its lease ran out without an acknowledgement
+        jdbcTemplate.update("UPDATE order_outbox SET claimed_until = ? WHERE order_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), leased.getId());
+        assertEquals(2, relay.relayPending());
+        assertEquals(List.of(OrderOutboxEvent.Type.ORDER_CREATED, OrderOutboxEvent.Type.ORDER_STATUS_CHANGED),
+                publisher.published().subList(1, 3).stream().map(Published::type).toList());
+        assertEquals(0, orderOutboxRepository.count());
+    }
+
+    private static UpdateOrderDTO update(String status, String shippingAddress) {
+        UpdateOrderDTO dto = new UpdateOrderDTO();
+        dto.setStatus(status);
+        dto.setShippingAddress(shippingAddress);
+        return dto;
+    }
+}
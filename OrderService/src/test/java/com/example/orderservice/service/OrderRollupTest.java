@@ -0,0 +1,177 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.CreateOrderItemDTO;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.OrderRollupDTO;
+import com.example.orderservice.dto.RollupCheckDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.dto.UpdateOrderItemDTO;
+import com.example.orderservice.entity.OrderRollup;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OrderRollupRepository;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the daily order rollups: incremental maintenance, rebuild, consistency check and endpoint.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderRollupTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orderRollupRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void rollupsFollowEveryOrderAndItemChange() {
+        // 3 orders of 20.00 with 2 items of 2 units each
+        OrderDTO paid = orderService.createOrder(TestOrders.order(1, 2));
+        OrderDTO repriced = orderService.createOrder(TestOrders.order(1, 2));
+        orderService.createOrdersBatch(List.of(TestOrders.order(2, 2)));
+        OrderDTO deleted = orderService.createOrder(TestOrders.order(2, 2));
+
+        orderService.updateOrder(paid.getId(), update("PAID", null));
+        orderService.updateOrder(repriced.getId(), update(null, new BigDecimal("35.50")));
+        OrderItemDTO item = orderItemService.createOrderItem(item(repriced.getId(), 5)).orElseThrow();
+        orderItemService.updateOrderItem(item.getId(), quantity(3));
+        orderItemService.deleteOrderItem(paid.getOrderItems().get(0).getId());
+        assertTrue(orderService.deleteOrder(deleted.getId()));
+
+        // Item changes move order totals: paid 20.00 - 10.00, repriced 35.50 + 5.00 - 2.00
+        assertRollup(OrderRollup.Dimension.ALL, "", 3, "68.50", 13);
+        assertRollup(OrderRollup.Dimension.STATUS, "PAID", 1, "10.00", 2);
+        assertRollup(OrderRollup.Dimension.STATUS, "CREATED", 2, "58.50", 11);
+        assertRollup(OrderRollup.Dimension.USER, "1", 2, "48.50", 9);
+        assertRollup(OrderRollup.Dimension.USER, "2", 1, "20.00", 4);
+
+        RollupCheckDTO check = orderRollupService.check(today, today);
+        assertTrue(check.isConsistent(), () -> "mismatches: " + check.mismatches());
+    }
+
+    @Test
+    void checkDetectsDriftAndRebuildRepairsIt() {
+        orderService.createOrder(TestOrders.order(1, 1));
+        orderService.createOrder(TestOrders.order(2, 3));
+        jdbcTemplate.update("UPDATE order_rollups SET order_count = 99 WHERE dimension = 'ALL'");
+        jdbcTemplate.update("DELETE FROM order_rollups WHERE dimension = 'USER' AND dimension_value = '2'");
+
+        RollupCheckDTO drifted = orderRollupService.check(today, today);
+        assertEquals(2, drifted.mismatches().size());
+
+        // ALL, STATUS:CREATED, USER:1 and USER:2
+        assertEquals(4, orderRollupService.rebuild());
+        assertTrue(orderRollupService.check(today, today).isConsistent());
+        assertRollup(OrderRollup.Dimension.ALL, "", 2, "40.00", 8);
+        assertRollup(OrderRollup.Dimension.USER, "2", 1, "20.00", 6);
+    }
+
+    @Test
+    void endpointServesOneRowPerBucket() throws Exception {
+        OrderDTO order = orderService.createOrder(TestOrders.order(1, 1));
+        orderService.createOrder(TestOrders.order(2, 1));
+        orderService.updateOrder(order.getId(), update("PAID", null));
+
+        mockMvc.perform(get("/api/analytics/orders/daily").param("dimension", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].value").value("CREATED"))
+                .andExpect(jsonPath("$.data[1].value").value("PAID"))
+                .andExpect(jsonPath("$.data[1].orderCount").value(1))
+                .andExpect(jsonPath("$.data[1].date").value(today.toString()));
+        mockMvc.perform(get("/api/analytics/orders/daily").param("dimension", "user").param("value", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].revenue").value(20.00));
+        mockMvc.perform(get("/api/analytics/orders/consistency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meta.consistent").value(true));
+        mockMvc.perform(get("/api/analytics/orders/daily").param("dimension", "product"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/analytics/orders/daily").param("from", "2024-01-01").param("to", "2025-06-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.details.maxDays").value(366));
+    }
+
+    private void assertRollup(OrderRollup.Dimension dimension, String value, long orders, String revenue, long units) {
+        List<OrderRollupDTO> rollups = orderRollupService.getDailyRollups(dimension, value, today, today);
+        assertEquals(1, rollups.size(), dimension + ":" + value);
+        OrderRollupDTO rollup = rollups.get(0);
+        assertEquals(orders, rollup.orderCount(), dimension + ":" + value + " orders");
+        assertEquals(0, new BigDecimal(revenue).compareTo(rollup.revenue()), dimension + ":" + value + " revenue");
+        assertEquals(units, rollup.itemUnits(), dimension + ":" + value + " units");
+    }
+
+    private static UpdateOrderDTO update(String status, BigDecimal totalAmount) {
+        UpdateOrderDTO dto = new UpdateOrderDTO();
+        dto.setStatus(status);
+        dto.setTotalAmount(totalAmount);
+        return dto;
+    }
+
+    private static CreateOrderItemDTO item(Long orderId, int quantity) {
+        CreateOrderItemDTO dto = new CreateOrderItemDTO();
+        dto.setOrderId(orderId);
+        dto.setProductId("PROD-X");
+        dto.setQuantity(quantity);
+        dto.setUnitPrice(new BigDecimal("1.00"));
+        return dto;
+    }
+
+    private static UpdateOrderItemDTO quantity(int quantity) {
+        UpdateOrderItemDTO dto = new UpdateOrderItemDTO();
+        dto.setQuantity(quantity);
+        return dto;
+    }
+}
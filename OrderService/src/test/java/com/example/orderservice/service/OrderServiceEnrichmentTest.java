@@ -0,0 +1,139 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.CartServiceClient;
+import com.example.orderservice.client.DownstreamGuard;
+import com.example.orderservice.client.UserExistenceCache;
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the concurrent, deadline-bounded enrichment in OrderService.
+ * UserService and CartService are replaced by local stub servers with added delay.
+ */
+class OrderServiceEnrichmentTest {
+
+    private HttpServer userStub;
+    private HttpServer cartStub;
+    private ThreadPoolTaskExecutor executor;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (userStub != null) userStub.stop(0);
+        if (cartStub != null) cartStub.stop(0);
+        executor.shutdown();
+    }
+
+    @Test
+    void latencyTracksSlowerCallRatherThanSum() throws Exception {
+        startStubs(400, 600);
+        configureService(5000);
+
+        // Warm up connections and class loading
+        orderService.getEnrichedOrderData(order());
+
+        long start = System.nanoTime();
+        Map<String, Object> enriched = orderService.getEnrichedOrderData(order());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertFalse(enriched.containsKey("degraded"));
+        assertEquals(Map.of("id", 7), enriched.get("user"));
+        assertEquals(List.of(Map.of("id", 3)), enriched.get("userCarts"));
+        assertTrue(elapsedMs >= 600, "should wait for the slower call, took " + elapsedMs + " ms");
+        assertTrue(elapsedMs < 1000, "should not pay the sum of both calls, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void missingPartsAreDegradedWhenDeadlinePasses() throws Exception {
+        startStubs(50, 5000);
+        configureService(1000);
+
+        long start = System.nanoTime();
+        Map<String, Object> enriched = orderService.getEnrichedOrderData(order());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 3000, "should return at the deadline, took " + elapsedMs + " ms");
+        assertEquals(Map.of("id", 7), enriched.get("user"));
+        assertEquals(List.of("userCarts"), enriched.get("degraded"));
+        assertNotNull(enriched.get("order"));
+    }
+
+    private void startStubs(long userDelayMs, long cartDelayMs) throws IOException {
+        userStub = stub("/users/7", "{\"id\":7}", userDelayMs);
+        cartStub = stub("/paniers/user/7", "[{\"id\":3}]", cartDelayMs);
+    }
+
+    private void configureService(long timeoutMs) {
+        RestTemplate restTemplate = new RestTemplate();
+        UserServiceClient userServiceClient = new UserServiceClient(restTemplate, new UserExistenceCache(1000, 60000, 5000),
+                new DownstreamGuard(CircuitBreaker.ofDefaults("userservice"), Bulkhead.ofDefaults("userservice")));
+        ReflectionTestUtils.setField(userServiceClient, "userServiceUrl", baseUrl(userStub));
+        CartServiceClient cartServiceClient = new CartServiceClient(restTemplate,
+                new DownstreamGuard(CircuitBreaker.ofDefaults("cartservice"), Bulkhead.ofDefaults("cartservice")));
+        ReflectionTestUtils.setField(cartServiceClient, "cartServiceUrl", baseUrl(cartStub));
+
+        orderService = new OrderService();
+        ReflectionTestUtils.setField(orderService, "userServiceClient", userServiceClient);
+        ReflectionTestUtils.setField(orderService, "cartServiceClient", cartServiceClient);
+        ReflectionTestUtils.setField(orderService, "enrichmentExecutor", executor);
+        ReflectionTestUtils.setField(orderService, "enrichmentTimeoutMs", timeoutMs);
+    }
+
+    private static OrderDTO order() {
+        OrderDTO order = new OrderDTO();
+        order.setId(1L);
+        order.setUserId(7);
+        return order;
+    }
+
+    private static HttpServer stub(String path, String body, long delayMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext(path, exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatusTransitionResultDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark: moving orders from CREATED to SHIPPED one PUT /api/orders/{id} at a time (locked read and
+ * full-row UPDATE per order) versus POST /api/orders/status-transitions (chunked set-based UPDATEs).
+ * Run with: mvn test -Pbenchmark -Dtest=OrderStatusTransitionBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStatusTransitionBenchmarkTest {
+
+    private static final int ORDERS = 100_000;
+    private static final int SINGLE_ORDERS = 2_000;
+    private static final long FIRST_ID = 10_000_000L;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderStatusTransitionService orderStatusTransitionService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareSingleUpdatesWithSetBasedTransitions() {
+        List<Long> ids = insertOrders(ORDERS);
+
+        // Warm up both paths
+        single(ids.subList(0, 200));
+        orderStatusTransitionService.transitionByIds(ids.subList(200, 2200), "SHIPPED");
+        ids = insertOrders(ORDERS);
+
+        double single = single(ids.subList(0, SINGLE_ORDERS));
+        List<Long> remaining = ids.subList(SINGLE_ORDERS, ids.size());
+        long start = System.nanoTime();
+        OrderStatusTransitionResultDTO result = orderStatusTransitionService.transitionByIds(remaining, "SHIPPED");
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(remaining.size(), result.updated());
+
+        System.out.printf("%n[benchmark] CREATED -> SHIPPED%n");
+        System.out.printf("[benchmark] PUT per order      : %10.1f orders/s (%d orders)%n", single, SINGLE_ORDERS);
+        System.out.printf("[benchmark] status-transitions : %10.1f orders/s (%d orders in %.2f s, x%.1f)%n",
+                remaining.size() / seconds, remaining.size(), seconds, remaining.size() / seconds / single);
+    }
+
+    /**
+     * Insert CREATED orders without items directly, to keep the setup out of the measurement
+     */
+    private List<Long> insertOrders(int count) {
+        orderRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM order_outbox");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = new ArrayList<>(count);
+        for (long id = FIRST_ID; id < FIRST_ID + count; id++) {
+            ids.add(id);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, order_number, user_id, shipping_address, billing_address, "
+                        + "total_amount, status, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, 20.00, 'CREATED', ?, ?, 0)",
+                ids, 1000, (statement, id) -> {
+                    statement.setLong(1, id);
+                    statement.setString(2, "BENCH-" + id);
+                    statement.setInt(3, (int) (id % 100) + 1);
+                    statement.setString(4, "1 rue de la Paix, Paris");
+                    statement.setString(5, "1 rue de la Paix, Paris");
+                    statement.setTimestamp(6, now);
+                    statement.setTimestamp(7, now);
+                });
+        return ids;
+    }
+
+    private double single(List<Long> ids) {
+        long start = System.nanoTime();
+        for (Long id : ids) {
+            UpdateOrderDTO update = new UpdateOrderDTO();
+            update.setStatus("SHIPPED");
+            orderService.updateOrder(id, update);
+        }
+        return ids.size() / ((System.nanoTime() - start) / 1e9);
+    }
+}
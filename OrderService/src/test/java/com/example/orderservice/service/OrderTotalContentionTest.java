@@ -0,0 +1,251 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.CounterCheckDTO;
+import com.example.orderservice.dto.CreateOrderItemDTO;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderItemDTO;
+import com.example.orderservice.dto.RollupCheckDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.dto.UpdateOrderItemDTO;
+import com.example.orderservice.entity.OrderRollup;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OrderRollupRepository;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Contention tests for delta-maintained order totals and rollups: many threads create, update and delete items
+ * of one hot order (and flip its status) at once, then the total must equal the sum of its lines; and orders
+ * created together, even by one user, must not wait on each other's rollup and counter rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderTotalContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 40;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserOrderCounterService userOrderCounterService;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        orderRollupRepository.deleteAll();
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void concurrentItemWritesKeepTheOrderTotalExact() throws Exception {
+        // Total 20.00 = 2 lines of 10.00
+        OrderDTO order = orderService.createOrder(TestOrders.order(1, 2));
+        Map<Long, Boolean> itemIds = new ConcurrentHashMap<>();
+        order.getOrderItems().forEach(item -> itemIds.put(item.getId(), true));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    List<Long> ids = new ArrayList<>(itemIds.keySet());
+                    int operation = random.nextInt(10);
+                    if (operation < 4 || ids.isEmpty()) {
+                        OrderItemDTO created = orderItemService.createOrderItem(
+                                item(order.getId(), random.nextInt(1, 6), random.nextInt(100, 1000))).orElseThrow();
+                        itemIds.put(created.getId(), true);
+                    } else if (operation < 8) {
+                        UpdateOrderItemDTO update = new UpdateOrderItemDTO();
+                        update.setQuantity(random.nextInt(1, 6));
+                        // May lose the race with a delete of the same item
+                        orderItemService.updateOrderItem(ids.get(random.nextInt(ids.size())), update);
+                    } else if (operation < 9) {
+                        Long id = ids.get(random.nextInt(ids.size()));
+                        if (orderItemService.deleteOrderItem(id)) {
+                            itemIds.remove(id);
+                        }
+                    } else {
+                        UpdateOrderDTO status = new UpdateOrderDTO();
+                        status.setStatus(random.nextBoolean() ? "PAID" : "CREATED");
+                        orderService.updateOrder(order.getId(), status);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        BigDecimal sumOfLines = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(total_line), 0) FROM order_items WHERE order_id = ?", BigDecimal.class, order.getId());
+        BigDecimal total = jdbcTemplate.queryForObject(
+                "SELECT total_amount FROM orders WHERE id = ?", BigDecimal.class, order.getId());
+        assertEquals(0, sumOfLines.compareTo(total), "total " + total + " but lines sum to " + sumOfLines);
+        // The cached order sees the committed total too
+        assertEquals(0, total.compareTo(orderService.getOrderById(order.getId()).orElseThrow().getTotalAmount()));
+
+        LocalDate today = LocalDate.now();
+        RollupCheckDTO rollups = orderRollupService.check(today, today);
+        assertTrue(rollups.isConsistent(), () -> "rollup mismatches: " + rollups.mismatches());
+    }
+
+    @Test
+    void concurrentCreatesDoNotWaitOnSharedRollupRows() throws Exception {
+        // Same day and status, so the same ALL and STATUS buckets
+        createWhileAnotherCreateIsOpen(1, 2);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int userId = 10 + t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD / 4; i++) {
+                    orderService.createOrder(TestOrders.order(userId, 1));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        LocalDate today = LocalDate.now();
+        RollupCheckDTO rollups = orderRollupService.check(today, today);
+        assertTrue(rollups.isConsistent(), () -> "rollup mismatches: " + rollups.mismatches());
+        assertEquals(2 + THREADS * (OPERATIONS_PER_THREAD / 4),
+                orderRollupService.getDailyRollups(OrderRollup.Dimension.ALL, null, today, today).get(0).orderCount());
+    }
+
+    @Test
+    void concurrentOrdersOfOneUserDoNotWaitOnSharedRows() throws Exception {
+        // Counters of the orders deleted by setUp
+        userOrderCounterService.rebuild();
+        // Same user too, so the same USER bucket and user counter row, but not the same stripe
+        createWhileAnotherCreateIsOpen(3, 3);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD / 4; i++) {
+                    OrderDTO order = orderService.createOrder(TestOrders.order(3, 1));
+                    if (i % 2 == 0) {
+                        // The user's latest order of its stripe leaves the row
+                        orderService.deleteOrder(order.getId());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        LocalDate today = LocalDate.now();
+        assertTrue(orderRollupService.check(today, today).isConsistent());
+        CounterCheckDTO counters = userOrderCounterService.check();
+        assertTrue(counters.isConsistent(), () -> "counter mismatches: " + counters.mismatches());
+        assertEquals(2 + THREADS * (OPERATIONS_PER_THREAD / 8), userOrderCounterService.countOrders(3, null));
+    }
+
+    /**
+     * Create an order of one user while a transaction that created an order of another user is still open:
+     * the second create must not wait for the first to commit
+     */
+    private void createWhileAnotherCreateIsOpen(int heldUserId, int userId) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch created = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<?> held = pool.submit(() -> transactionTemplate.execute(status -> {
+                orderService.createOrder(TestOrders.order(heldUserId, 1));
+                created.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertTrue(created.await(10, TimeUnit.SECONDS));
+            Future<OrderDTO> other = pool.submit(() -> orderService.createOrder(TestOrders.order(userId, 1)));
+            assertNotNull(other.get(5, TimeUnit.SECONDS).getId(), "create blocked by an open transaction");
+            release.countDown();
+            held.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private static CreateOrderItemDTO item(Long orderId, int quantity, int unitPriceCents) {
+        CreateOrderItemDTO dto = new CreateOrderItemDTO();
+        dto.setOrderId(orderId);
+        dto.setProductId("PROD-HOT");
+        dto.setQuantity(quantity);
+        dto.setUnitPrice(BigDecimal.valueOf(unitPriceCents, 2));
+        return dto;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.dto.OrderDTO;
+import com.example.orderservice.dto.OrderPatchResultDTO;
+import com.example.orderservice.dto.PatchOrderDTO;
+import com.example.orderservice.dto.UpdateOrderDTO;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.support.TestOrders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark: order updates per second under contention, through PUT /api/orders/{id} (locked read of the
+ * order and its items, then a full-row UPDATE) versus PATCH /api/orders/{id} (one conditional UPDATE on the
+ * version, retried by the client with the current version after a 409).
+ * Run with: mvn test -Pbenchmark -Dtest=OrderUpdateBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderUpdateBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int UPDATES_PER_THREAD = 250;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private UserServiceClient userServiceClient;
+
+    @Test
+    void compareReadModifyWriteWithConditionalUpdate() throws Exception {
+        when(userServiceClient.verifyUserExists(anyInt())).thenReturn(true);
+
+        // Warm up both paths
+        run(createOrders(50), false, new AtomicLong());
+        run(createOrders(50), true, new AtomicLong());
+
+        System.out.printf("%n[benchmark] %d threads x %d updates, %d items per order%n", THREADS, UPDATES_PER_THREAD, ITEMS_PER_ORDER);
+        for (int hotOrders : new int[]{1, 8, 1000}) {
+            List<Long> ids = createOrders(hotOrders);
+            double put = run(ids, false, new AtomicLong());
+            AtomicLong conflicts = new AtomicLong();
+            double patch = run(ids, true, conflicts);
+            System.out.printf("[benchmark] %4d orders  PUT   : %10.1f updates/s%n", hotOrders, put);
+            System.out.printf("[benchmark] %4d orders  PATCH : %10.1f updates/s (x%.1f), %d conflicts retried%n",
+                    hotOrders, patch, patch / put, conflicts.get());
+        }
+    }
+
+    private List<Long> createOrders(int count) {
+        orderRepository.deleteAll();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(orderService.createOrder(TestOrders.order(i % 100 + 1, ITEMS_PER_ORDER)).getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Apply THREADS x UPDATES_PER_THREAD address changes to random orders and return the applied updates per second
+     */
+    private double run(List<Long> ids, boolean conditional, AtomicLong conflicts) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                    Long id = ids.get(random.nextInt(ids.size()));
+                    String address = i + " rue de Rivoli, Paris";
+                    if (conditional) {
+                        patch(id, address, conflicts);
+                    } else {
+                        UpdateOrderDTO update = new UpdateOrderDTO();
+                        update.setShippingAddress(address);
+                        orderService.updateOrder(id, update);
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(5, TimeUnit.MINUTES);
+        }
+        double elapsedSeconds = (System.nanoTime() - begin) / 1e9;
+        pool.shutdown();
+        return THREADS * UPDATES_PER_THREAD / elapsedSeconds;
+    }
+
+    /**
+     * What a client does: read the order's version, then patch it, and on a conflict retry with the current version
+     */
+    private void patch(Long id, String address, AtomicLong conflicts) {
+        PatchOrderDTO patch = new PatchOrderDTO();
+        patch.setShippingAddress(address);
+        patch.setVersion(orderService.getOrderById(id).map(OrderDTO::getVersion).orElseThrow());
+        OrderPatchResultDTO result = orderService.patchOrder(id, patch);
+        while (OrderPatchResultDTO.CONFLICT.equals(result.getStatus())) {
+            conflicts.incrementAndGet();
+            patch.setVersion(result.getVersion());
+            result = orderService.patchOrder(id, patch);
+        }
+    }
+}
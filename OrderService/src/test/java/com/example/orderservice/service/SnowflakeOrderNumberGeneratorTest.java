@@ -0,0 +1,100 @@
+package com.example.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Snowflake order number generator: uniqueness and monotonicity under
+ * many threads, node separation and clock anomalies. Throughput is measured by OrderNumberBenchmark
+ * in the benchmarks module.
+ */
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void idsAreUniqueAndMonotonicAcrossThreads() throws Exception {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(42);
+        long[][] idsPerThread = new long[THREADS][IDS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            long[] ids = idsPerThread[t];
+            threads[t] = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    ids[i] = generator.nextId();
+                }
+            });
+            threads[t].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (long[] ids : idsPerThread) {
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "IDs must increase within a thread");
+            }
+        }
+        long[] all = Arrays.stream(idsPerThread).flatMapToLong(Arrays::stream).sorted().toArray();
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate ID " + all[i]);
+        }
+    }
+
+    @Test
+    void nodesNeverCollideWithinTheSameMillisecond() {
+        SnowflakeOrderNumberGenerator nodeA = new SnowflakeOrderNumberGenerator(1, () -> 1_750_000_000_000L);
+        SnowflakeOrderNumberGenerator nodeB = new SnowflakeOrderNumberGenerator(2, () -> 1_750_000_000_000L);
+        long[] idsA = new long[10_000];
+        long[] idsB = new long[10_000];
+        for (int i = 0; i < idsA.length; i++) {
+            idsA[i] = nodeA.nextId();
+            idsB[i] = nodeB.nextId();
+        }
+        long[] all = new long[idsA.length + idsB.length];
+        System.arraycopy(idsA, 0, all, 0, idsA.length);
+        System.arraycopy(idsB, 0, all, idsA.length, idsB.length);
+        assertEquals(all.length, Arrays.stream(all).distinct().count());
+    }
+
+    @Test
+    void clockMovingBackwardsStillYieldsIncreasingIds() {
+        AtomicLong now = new AtomicLong(1_750_000_000_000L);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, now::get);
+        long before = generator.nextId();
+        now.addAndGet(-5_000);
+        long after = generator.nextId();
+        assertTrue(after > before);
+    }
+
+    @Test
+    void orderNumbersFitTheColumn() {
+        String orderNumber = new SnowflakeOrderNumberGenerator(1023).nextOrderNumber();
+        assertTrue(orderNumber.startsWith("ORD-"));
+        assertTrue(orderNumber.length() <= 50);
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeIds() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(-1));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.orderservice.support;
+
+import com.example.orderservice.entity.OrderOutboxEvent;
+import com.example.orderservice.service.OrderEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * In-memory stand-in for the message broker.
+ * Acknowledges events asynchronously after a short delay, in the order they were sent per caller,
+ * and can be told to reject the events matching a predicate.
+ */
+public class RecordingOrderEventPublisher implements OrderEventPublisher {
+
+    /**
+     * An acknowledged event, and whether a transaction was open on the thread that published it
+     */
+    public record Published(Long eventId, Long orderId, OrderOutboxEvent.Type type, String payload,
+                            boolean inTransaction) {
+    }
+
+    private static final Executor ACK_DELAY = CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS);
+
+    private final List<Published> published = new ArrayList<>();
+    private volatile Predicate<OrderOutboxEvent> rejecting = event -> false;
+
+    @Override
+    public CompletableFuture<Void> publish(OrderOutboxEvent event) {
+        Published record = new Published(event.getId(), event.getOrderId(), event.getEventType(), event.getPayload(),
+                TransactionSynchronizationManager.isActualTransactionActive());
+        boolean reject = rejecting.test(event);
+        return CompletableFuture.runAsync(() -> {
+            if (reject) {
+                throw new IllegalStateException("broker rejected event " + event.getId());
+            }
+            synchronized (published) {
+                published.add(record);
+            }
+        }, ACK_DELAY);
+    }
+
+    /**
+     * Reject the events matching the predicate until reset
+     */
+    public void rejectWhen(Predicate<OrderOutboxEvent> predicate) {
+        this.rejecting = predicate;
+    }
+
+    /**
+     * Acknowledged events, in acknowledgement order
+     */
+    public List<Published> published() {
+        synchronized (published) {
+            return List.copyOf(published);
+        }
+    }
+
+    public void reset() {
+        synchronized (published) {
+            published.clear();
+        }
+        rejecting = event -> false;
+    }
+}
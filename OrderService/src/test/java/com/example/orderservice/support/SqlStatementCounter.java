@@ -0,0 +1,45 @@
+package com.example.orderservice.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs.
+ * Relies on hibernate.generate_statistics, which the test profile enables.
+ */
+public class SqlStatementCounter {
+
+    /**
+     * An action that may throw, e.g. a MockMvc request
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Run the action and return how many statements it prepared
+     */
+    public long count(Action action) throws Exception {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Run the action and fail unless it prepared exactly the expected number of statements
+     */
+    public void assertStatements(long expected, String description, Action action) throws Exception {
+        long actual = count(action);
+        assertEquals(expected, actual, description + " should run " + expected + " SQL statement(s), ran " + actual);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.orderservice.support;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process HTTP server standing in for a downstream service (UserService, CartService).
+ * Answers every path with the same JSON body after a fixed latency, and with a 503 for the
+ * given fraction of requests. Each exchange runs on its own virtual thread.
+ */
+public final class StubDownstream implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private StubDownstream(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Start a stub on a free port of 127.0.0.1
+     *
+     * @param body      JSON returned with a 200
+     * @param latency   delay before every response
+     * @param errorRate fraction of requests answered with a 503, between 0 and 1
+     * @param maxConnections expected concurrent connections, used to size the backlog and keep-alive pool
+     */
+    public static StubDownstream start(String body, Duration latency, double errorRate, int maxConnections) throws IOException {
+        // The JDK server closes keep-alive connections beyond 200 idle ones, which the client pool would then reuse
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(Math.max(200, 2 * maxConnections)));
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), Math.max(50, 2 * maxConnections));
+        StubDownstream stub = new StubDownstream(server);
+        byte[] ok = body.getBytes(StandardCharsets.UTF_8);
+        byte[] error = "{\"error\":\"stubbed failure\"}".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean fail = errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+            byte[] response = fail ? error : ok;
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(fail ? 503 : 200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.setExecutor(stub.executor);
+        server.start();
+        return stub;
+    }
+
+    /**
+     * Base URL to configure as the downstream service URL
+     */
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.orderservice.support;
+
+import com.example.orderservice.dto.CreateOrderDTO;
+import com.example.orderservice.dto.CreateOrderItemDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builders for valid order payloads used across tests.
+ */
+public final class TestOrders {
+
+    private TestOrders() {
+    }
+
+    /**
+     * A valid order for the user with the given number of items
+     */
+    public static CreateOrderDTO order(int userId, int itemCount) {
+        CreateOrderDTO dto = new CreateOrderDTO();
+        dto.setUserId(userId);
+        dto.setShippingAddress("1 rue de la Paix, Paris");
+        dto.setBillingAddress("1 rue de la Paix, Paris");
+        dto.setTotalAmount(new BigDecimal("20.00"));
+        List<CreateOrderItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            CreateOrderItemDTO item = new CreateOrderItemDTO();
+            item.setProductId("PROD-" + i);
+            item.setQuantity(2);
+            item.setUnitPrice(new BigDecimal("5.00"));
+            items.add(item);
+        }
+        dto.setOrderItems(items);
+        return dto;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.orderservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Bloom filter: no false negatives, a false-positive rate close to the target,
+ * the memory cap, and concurrent puts.
+ */
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 200_000;
+
+    @Test
+    void neverMissesAnAddedValueAndStaysNearTheTargetRate() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01, Long.MAX_VALUE);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("ORD-" + i);
+        }
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("ORD-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < INSERTIONS; i++) {
+            if (filter.mightContain("BOGUS-" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / INSERTIONS;
+        assertTrue(rate < 0.015, "false-positive rate " + rate);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.003);
+    }
+
+    @Test
+    void aMemoryCapTradesSizeForFalsePositives() {
+        BloomFilter capped = new BloomFilter(INSERTIONS, 0.01, 8 * 64 * 1024);
+        assertEquals(8 * 64 * 1024, capped.bitSize());
+        for (int i = 0; i < INSERTIONS; i++) {
+            capped.put("ORD-" + i);
+        }
+        assertTrue(capped.mightContain("ORD-" + (INSERTIONS - 1)));
+        assertTrue(capped.expectedFalsePositiveRate() > 0.05);
+
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01, Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1000, 1.5, Long.MAX_VALUE));
+    }
+
+    @Test
+    void concurrentPutsAreAllVisible() throws Exception {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01, Long.MAX_VALUE);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = offset; i < INSERTIONS; i += 8) {
+                    filter.put("ORD-" + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("ORD-" + i));
+        }
+    }
+}